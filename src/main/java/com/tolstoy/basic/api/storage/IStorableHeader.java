@@ -0,0 +1,33 @@
+/*
+ * Copyright 2018 Chris Kelly
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.tolstoy.basic.api.storage;
+
+import java.time.Instant;
+
+/**
+ * The columns of a stored record without its payload. Use load() to
+ * get the full record.
+ */
+public interface IStorableHeader {
+	long getID();
+	Instant getCreateTime();
+	Instant getModifyTime();
+	String getSearchKey();
+
+	/**
+	 * Read and deserialize the full record.
+	 * @return the record, or null if it no longer exists
+	 */
+	IStorable load() throws Exception;
+}
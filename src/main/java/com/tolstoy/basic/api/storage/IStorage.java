@@ -16,6 +16,7 @@ package com.tolstoy.basic.api.storage;
 import java.io.*;
 import java.net.*;
 import java.util.*;
+import java.time.Instant;
 
 public interface IStorage {
 	void connect() throws Exception;
@@ -27,5 +28,34 @@ public interface IStorage {
 	List<IStorable> getRecords( IStorageTable table, StorageOrdering ordering, int max ) throws Exception;
 	List<IStorable> getRecords( IStorageTable table, String searchkey, StorageOrdering ordering, int max ) throws Exception;
 
+	/**
+	 * List records without reading their payloads. Use IStorableHeader.load()
+	 * to read the ones that are needed.
+	 */
+	List<IStorableHeader> getRecordHeaders( IStorageTable table, StorageOrdering ordering, int max ) throws Exception;
+	List<IStorableHeader> getRecordHeaders( IStorageTable table, String searchkey, StorageOrdering ordering, int max ) throws Exception;
+
+	/**
+	 * Read the records one at a time and pass each one to the visitor,
+	 * without keeping them in memory. Use this instead of getRecords()
+	 * when there could be many large records.
+	 * @return the number of records that were passed to the visitor
+	 */
+	int visitRecords( IStorageTable table, StorageOrdering ordering, IStorableVisitor visitor ) throws Exception;
+	int visitRecords( IStorageTable table, String searchkey, StorageOrdering ordering, IStorableVisitor visitor ) throws Exception;
+
 	void saveRecord( IStorageTable table, IStorable record ) throws Exception;
+
+	/**
+	 * Save all of the records in a single transaction: either all of them
+	 * are saved or none are. New records get their IDs set as in saveRecord().
+	 * @return the IDs of the records, in the same order as the records
+	 */
+	List<Long> saveRecords( IStorageTable table, Collection<? extends IStorable> records ) throws Exception;
+
+	/**
+	 * @return the number of records that were deleted
+	 */
+	int deleteRecords( IStorageTable table, String searchkey ) throws Exception;
+	int deleteRecordsModifiedBefore( IStorageTable table, Instant cutoff ) throws Exception;
 }
@@ -0,0 +1,27 @@
+/*
+ * Copyright 2018 Chris Kelly
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.tolstoy.basic.api.storage;
+
+/**
+ * Called after a queued write has finished.
+ */
+public interface IStorageWriteListener {
+	/**
+	 * Called on the writer thread.
+	 * @param table the table the record was written to
+	 * @param record the record, which has its ID if the write succeeded
+	 * @param error null if the write succeeded
+	 */
+	void recordWritten( IStorageTable table, IStorable record, Exception error );
+}
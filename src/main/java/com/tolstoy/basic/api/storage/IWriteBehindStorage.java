@@ -0,0 +1,44 @@
+/*
+ * Copyright 2018 Chris Kelly
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.tolstoy.basic.api.storage;
+
+/**
+ * An IStorage that can also write records in the background.
+ *
+ * The IStorage methods keep their usual meaning: they wait for the
+ * queued writes to finish first, so they always see the queued records
+ * and saveRecord() sets the ID before it returns.
+ */
+public interface IWriteBehindStorage extends IStorage {
+	/**
+	 * Queue the record to be written and return without waiting. If the
+	 * same record is already queued for the same table, the two writes are
+	 * merged into one. The record is serialized when it's written, so it
+	 * shouldn't be changed after it's queued.
+	 * @param listener called after the write, or null
+	 */
+	void saveRecordLater( IStorageTable table, IStorable record, IStorageWriteListener listener ) throws Exception;
+
+	/**
+	 * Wait for all queued writes to finish.
+	 * @throws Exception the first error from a queued write since the last flush
+	 */
+	void flush() throws Exception;
+
+	/**
+	 * Finish the queued writes and stop the writer thread. Records can't be
+	 * queued after this, but the IStorage methods still work.
+	 */
+	void shutdown();
+}
@@ -122,12 +122,40 @@ public interface ITweet {
 	*/
 	TweetSupposedQuality getSupposedQuality();
 
-	/** Get all the attributes.
+	/** Get the time the tweet was posted, from the "time" attribute.
+	 * @return seconds since the epoch or 0 if unknown
+	*/
+	long getTime();
+
+	/** Get the number of replies, from the "replycount" attribute.
+	 * @return the number of replies or 0 if unknown
+	*/
+	int getReplyCount();
+
+	/** Get the number of retweets, from the "retweetcount" attribute.
+	 * @return the number of retweets or 0 if unknown
+	*/
+	int getRetweetCount();
+
+	/** Get the number of likes, from the "favoritecount" attribute.
+	 * @return the number of likes or 0 if unknown
+	*/
+	int getFavoriteCount();
+
+	/** Get the conversation ID, from the "conversationid" attribute.
+	 * @return the conversation ID or 0 if unknown
+	*/
+	long getConversationID();
+
+	/** Get all the attributes. The typed values above are read from
+	 * these, so change them with setAttribute() or setAttributes() rather
+	 * than by changing this map.
 	 * @return a map of attributes
 	*/
 	Map<String,String> getAttributes();
 
-	/** Set all the attributes.
+	/** Set all the attributes. The map is copied, so later changes to
+	 * it are not seen by the tweet.
 	 * @param attributes a map of attributes
 	*/
 	void setAttributes( Map<String,String> attributes );
@@ -0,0 +1,41 @@
+/*
+ * Copyright 2018 Chris Kelly
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.tolstoy.basic.api.tweet;
+
+import java.util.Map;
+import java.time.Instant;
+
+/**
+ * Side store for tweet attributes that were removed from the tweets to
+ * save memory and space. Nothing is read back unless asked for.
+ */
+public interface ITweetAttributeStore {
+	/**
+	 * Store attributes, replacing any already stored for the same tweets.
+	 * @param attributesByTweetID the attributes to store, keyed by tweet ID
+	 */
+	void storeAttributes( Map<Long,Map<String,String>> attributesByTweetID ) throws Exception;
+
+	/**
+	 * @param tweetID a tweet ID
+	 * @return the stored attributes, or an empty map if there are none
+	 */
+	Map<String,String> loadAttributes( long tweetID ) throws Exception;
+
+	/**
+	 * Delete the attributes that were last stored before the cutoff.
+	 * @return the number of tweets whose attributes were deleted
+	 */
+	int deleteAttributesModifiedBefore( Instant cutoff ) throws Exception;
+}
@@ -65,6 +65,12 @@ public interface ITweetCollection {
 	 */
 	void removeTweetByID( long id );
 
+	/**
+	 * Remove heavy attributes from the tweets, see TweetAttributeRetentionPolicy.
+	 * @return the number of tweets that were changed
+	 */
+	int applyAttributeRetention( TweetAttributeRetentionPolicy policy ) throws Exception;
+
 	Instant getRetrievalTime();
 	void setRetrievalTime( Instant retrievalTime );
 
@@ -0,0 +1,50 @@
+/*
+ * Copyright 2018 Chris Kelly
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.tolstoy.basic.api.tweet;
+
+/**
+ * What to do with the heavy tweet attributes (HTML, JSON blobs, etc.)
+ * once the tweets have been extracted. See TweetAttributeRetentionPolicy.
+ */
+public enum TweetAttributeRetention {
+	KEEP( "keep" ),
+	DROP( "drop" ),
+	OFFLOAD( "offload" );
+
+	private String key;
+
+	public static TweetAttributeRetention getMatching( String retention ) {
+		if ( retention == null || retention.length() < 1 ) {
+			return KEEP;
+		}
+
+		retention = retention.trim().toLowerCase();
+
+		for( TweetAttributeRetention tweetAttributeRetention : values() ) {
+			if ( tweetAttributeRetention.getKey().equals( retention ) ) {
+				return tweetAttributeRetention;
+			}
+		}
+
+		return KEEP;
+	}
+
+	TweetAttributeRetention( String key ) {
+		this.key = key;
+	}
+
+	public String getKey() {
+		return key;
+	}
+}
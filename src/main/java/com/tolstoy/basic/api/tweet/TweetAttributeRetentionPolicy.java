@@ -0,0 +1,136 @@
+/*
+ * Copyright 2018 Chris Kelly
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.tolstoy.basic.api.tweet;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Removes heavy attributes that analysis and the reports don't use from
+ * tweets after they've been extracted. Depending on the retention, the
+ * removed attributes are thrown away or moved to an ITweetAttributeStore.
+ *
+ * Offloaded tweets get the ATTR_OFFLOADED attribute, so that it's
+ * possible to tell an offloaded attribute from one that was never set.
+ */
+public class TweetAttributeRetentionPolicy {
+	private static final Logger logger = LogManager.getLogger( TweetAttributeRetentionPolicy.class );
+
+	public static final String ATTR_OFFLOADED = "attributesoffloaded";
+
+	public static final List<String> DEFAULT_ATTRIBUTE_NAMES = Collections.unmodifiableList( Arrays.asList( "tweethtml",
+																											"suggestionjson",
+																											"replytousersjson",
+																											"avatarURL",
+																											"componentcontext" ) );
+
+	private TweetAttributeRetention retention;
+	private Collection<String> attributeNames;
+	private ITweetAttributeStore store;
+
+	/**
+	 * @param retention what to do with the attributes
+	 * @param attributeNames the attributes to remove
+	 * @param store where to move the attributes; only used, and required, for OFFLOAD
+	 */
+	public TweetAttributeRetentionPolicy( TweetAttributeRetention retention, Collection<String> attributeNames, ITweetAttributeStore store ) {
+		if ( retention == TweetAttributeRetention.OFFLOAD && store == null ) {
+			throw new IllegalArgumentException( "offloading requires a store" );
+		}
+
+		this.retention = retention;
+		this.attributeNames = attributeNames;
+		this.store = store;
+	}
+
+	public TweetAttributeRetention getRetention() {
+		return retention;
+	}
+
+	/**
+	 * Apply the policy to one tweet.
+	 * @return 1 if the tweet was changed, otherwise 0
+	 */
+	public int apply( ITweet tweet ) throws Exception {
+		return tweet != null ? apply( Collections.singletonList( tweet ) ) : 0;
+	}
+
+	/**
+	 * Apply the policy to the tweets. When offloading, the attributes are
+	 * stored before they're removed, so if storing them fails the tweets
+	 * are left as they were.
+	 * @return the number of tweets that were changed
+	 */
+	public int apply( Collection<ITweet> tweets ) throws Exception {
+		if ( retention == TweetAttributeRetention.KEEP || tweets == null || tweets.isEmpty() ) {
+			return 0;
+		}
+
+		Map<Long,Map<String,String>> removed = new LinkedHashMap<Long,Map<String,String>>();
+
+		for ( ITweet tweet : tweets ) {
+			if ( tweet == null || tweet.getAttributes() == null ) {
+				continue;
+			}
+
+			Map<String,String> heavy = new HashMap<String,String>();
+			for ( String name : attributeNames ) {
+				String value = tweet.getAttribute( name );
+				if ( value != null ) {
+					heavy.put( name, value );
+				}
+			}
+
+			if ( !heavy.isEmpty() ) {
+				removed.put( tweet.getID(), heavy );
+			}
+		}
+
+		if ( removed.isEmpty() ) {
+			return 0;
+		}
+
+		if ( retention == TweetAttributeRetention.OFFLOAD ) {
+			store.storeAttributes( removed );
+		}
+
+		int ret = 0;
+
+		for ( ITweet tweet : tweets ) {
+			if ( tweet == null || !removed.containsKey( tweet.getID() ) ) {
+				continue;
+			}
+
+			Map<String,String> attributes = new HashMap<String,String>( tweet.getAttributes() );
+			attributes.keySet().removeAll( attributeNames );
+			if ( retention == TweetAttributeRetention.OFFLOAD ) {
+				attributes.put( ATTR_OFFLOADED, "true" );
+			}
+
+			tweet.setAttributes( attributes );
+			ret++;
+		}
+
+		logger.debug( retention.getKey() + ": removed attributes from " + ret + " tweets" );
+
+		return ret;
+	}
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2018 Chris Kelly
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.tolstoy.basic.app.storage;
+
+import java.time.Instant;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import com.tolstoy.basic.api.storage.*;
+
+class StorableHeader implements IStorableHeader {
+	private IStorage storage;
+	private IStorageTable table;
+	private long id;
+	private String searchKey;
+	private Instant createTime;
+	private Instant modifyTime;
+
+	StorableHeader( IStorage storage, IStorageTable table, long id, String searchKey, Instant createTime, Instant modifyTime ) {
+		this.storage = storage;
+		this.table = table;
+		this.id = id;
+		this.searchKey = searchKey;
+		this.createTime = createTime;
+		this.modifyTime = modifyTime;
+	}
+
+	@Override
+	public long getID() {
+		return id;
+	}
+
+	@Override
+	public Instant getCreateTime() {
+		return createTime;
+	}
+
+	@Override
+	public Instant getModifyTime() {
+		return modifyTime;
+	}
+
+	@Override
+	public String getSearchKey() {
+		return searchKey;
+	}
+
+	@Override
+	public IStorable load() throws Exception {
+		return storage.getRecordByID( table, id );
+	}
+
+	@Override
+	public String toString() {
+		return new ToStringBuilder( this )
+		.append( "table", table.getTablename() )
+		.append( "id", id )
+		.append( "searchKey", searchKey )
+		.append( "createTime", createTime )
+		.append( "modifyTime", modifyTime )
+		.toString();
+	}
+}
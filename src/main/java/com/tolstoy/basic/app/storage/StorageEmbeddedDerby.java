@@ -13,6 +13,7 @@
  */
 package com.tolstoy.basic.app.storage;
 
+import java.io.InputStream;
 import java.util.*;
 import java.sql.*;
 import java.time.Instant;
@@ -26,6 +27,16 @@ import com.tolstoy.basic.api.storage.*;
 public class StorageEmbeddedDerby implements IStorage {
 	private static final Logger logger = LogManager.getLogger( StorageEmbeddedDerby.class );
 
+	private static final int VISIT_FETCH_SIZE = 4;
+
+		//	Derby's warning when an index is created that already exists
+	public static final String DUPLICATE_INDEX_SQLSTATE = "01504";
+
+		//	Derby's error when an insert would duplicate a primary key
+	public static final String DUPLICATE_KEY_SQLSTATE = "23505";
+
+	private static final int MAX_MERGE_ATTEMPTS = 3;
+
 	private BasicDataSource connectionPool;
 	private List<String> tableNames;
 	private String connectionString;
@@ -51,6 +62,7 @@ public class StorageEmbeddedDerby implements IStorage {
 	public void ensureTables() throws Exception {
 		for ( String tableName : tableNames ) {
 			createTableInternalIgnoreIfExists( tableName );
+			createIndexInternalIgnoreIfExists( tableName );
 		}
 	}
 
@@ -168,57 +180,270 @@ public class StorageEmbeddedDerby implements IStorage {
 	}
 
 	@Override
-	public void saveRecord( IStorageTable table, IStorable record ) throws Exception {
+	public List<IStorableHeader> getRecordHeaders( IStorageTable table, StorageOrdering ordering, int max ) throws Exception {
+		return getRecordHeadersInternal( table, null, ordering, max );
+	}
+
+	@Override
+	public List<IStorableHeader> getRecordHeaders( IStorageTable table, String searchkey, StorageOrdering ordering, int max ) throws Exception {
+		return getRecordHeadersInternal( table, searchkey, ordering, max );
+	}
+
+	protected List<IStorableHeader> getRecordHeadersInternal( IStorageTable table, String searchkey, StorageOrdering ordering, int max ) throws Exception {
 		Connection connection = null;
 		PreparedStatement ps = null;
 		ResultSet rs = null;
+		List<IStorableHeader> ret = new ArrayList<IStorableHeader>( max );
 
 		String tablename = table.getTablename();
-		String query;
+		String where = searchkey != null ? " WHERE searchkey= ? " : " ";
 
 		try {
-			String json = Utils.getDefaultObjectMapper().writeValueAsString( record );
+			connection = getConnection();
+			ps = connection.prepareStatement( "SELECT id, searchkey, created, modified FROM " + tablename + where + getOrdering( ordering ) );
+
+			if ( searchkey != null ) {
+				ps.setString( 1, searchkey );
+			}
 
+			ps.setMaxRows( max );
+			rs = ps.executeQuery();
+
+			while ( rs.next() ) {
+				ret.add( new StorableHeader( this, table, rs.getLong( "id" ), rs.getString( "searchkey" ),
+												timestampToInstant( rs.getTimestamp( "created" ) ),
+												timestampToInstant( rs.getTimestamp( "modified" ) ) ) );
+			}
+		}
+		finally {
+			if ( rs != null ) {
+				rs.close();
+			}
+			if ( ps != null ) {
+				ps.close();
+			}
+			if ( connection != null ) {
+				connection.close();
+			}
+		}
+
+		return ret;
+	}
+
+	@Override
+	public int visitRecords( IStorageTable table, StorageOrdering ordering, IStorableVisitor visitor ) throws Exception {
+		return visitRecordsInternal( table, null, ordering, visitor );
+	}
+
+	@Override
+	public int visitRecords( IStorageTable table, String searchkey, StorageOrdering ordering, IStorableVisitor visitor ) throws Exception {
+		return visitRecordsInternal( table, searchkey, ordering, visitor );
+	}
+
+	/**
+	 * Uses a forward-only, read-only cursor and only reads a few rows
+	 * ahead, so only the record that's being visited is in memory.
+	 */
+	protected int visitRecordsInternal( IStorageTable table, String searchkey, StorageOrdering ordering, IStorableVisitor visitor ) throws Exception {
+		Connection connection = null;
+		PreparedStatement ps = null;
+		ResultSet rs = null;
+		int ret = 0;
+
+		String tablename = table.getTablename();
+		String where = searchkey != null ? " WHERE searchkey= ? " : " ";
+
+		try {
 			connection = getConnection();
-			Blob blob = connection.createBlob();
-			blob.setBytes( 1, json.getBytes() );
+			ps = connection.prepareStatement( "SELECT * FROM " + tablename + where + getOrdering( ordering ),
+												ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY );
 
-			if ( record.getID() == 0 ) {
-				query = "INSERT INTO " + tablename + "( searchkey, created, modified, payload ) VALUES( ?, ?, ?, ? )";
-				ps = connection.prepareStatement( query, Statement.RETURN_GENERATED_KEYS );
+			if ( searchkey != null ) {
+				ps.setString( 1, searchkey );
+			}
 
-				ps.setString( 1, record.getSearchKey() );
-				ps.setObject( 2, instantToTimestamp( record.getCreateTime() ) );
-				ps.setObject( 3, instantToTimestamp( record.getModifyTime() ) );
-				ps.setBlob( 4, blob );
-				logger.info( "about to insert to " + tablename );
+			ps.setFetchSize( VISIT_FETCH_SIZE );
+			rs = ps.executeQuery();
 
-				ps.executeUpdate();
+			while ( rs.next() ) {
+				ret++;
+				if ( !visitor.visit( readRecord( rs ) ) ) {
+					break;
+				}
+			}
+		}
+		finally {
+			if ( rs != null ) {
+				rs.close();
+			}
+			if ( ps != null ) {
+				ps.close();
+			}
+			if ( connection != null ) {
+				connection.close();
+			}
+		}
+
+		return ret;
+	}
+
+	@Override
+	public void saveRecord( IStorageTable table, IStorable record ) throws Exception {
+		saveRecords( table, Collections.singletonList( record ) );
+	}
+
+	/**
+	 * Inserts are run one at a time because Derby doesn't return the
+	 * generated keys for a batch, but updates are batched. Either way
+	 * there's only one commit, which is what makes this faster than
+	 * calling saveRecord() for each record.
+	 */
+	@Override
+	public List<Long> saveRecords( IStorageTable table, Collection<? extends IStorable> records ) throws Exception {
+		Connection connection = null;
+		PreparedStatement insert = null;
+		PreparedStatement update = null;
+		ResultSet rs = null;
+		List<Long> ret = new ArrayList<Long>( records.size() );
+		List<IStorable> inserted = new ArrayList<IStorable>();
+
+		String tablename = table.getTablename();
+
+		if ( records.isEmpty() ) {
+			return ret;
+		}
+
+		try {
+			connection = getConnection();
+			connection.setAutoCommit( false );
+
+			int numUpdates = 0;
+
+			for ( IStorable record : records ) {
+				if ( record.getID() == 0 ) {
+					if ( insert == null ) {
+						insert = connection.prepareStatement( "INSERT INTO " + tablename + "( searchkey, created, modified, payload ) VALUES( ?, ?, ?, ? )",
+																Statement.RETURN_GENERATED_KEYS );
+					}
+
+					setRecordParameters( connection, insert, record );
 
-				rs = ps.getGeneratedKeys();
+					insert.executeUpdate();
 
-				if ( rs.next() ) {
-					record.setID( rs.getLong( 1 ) );
+					rs = insert.getGeneratedKeys();
+					if ( rs.next() ) {
+						record.setID( rs.getLong( 1 ) );
+						inserted.add( record );
+					}
+					rs.close();
+					rs = null;
 				}
+				else {
+					if ( update == null ) {
+						update = connection.prepareStatement( "UPDATE " + tablename + " SET searchkey = ?, created = ?, modified = ?, payload = ? WHERE id = ?" );
+					}
+
+					setRecordParameters( connection, update, record );
+					update.setLong( 5, record.getID() );
+
+					update.addBatch();
+					numUpdates++;
+				}
+
+				ret.add( record.getID() );
+			}
+
+			if ( update != null ) {
+				update.executeBatch();
 			}
-			else {
-				query = "UPDATE " + tablename + " SET searchkey = ?, created = ?, modified = ?, payload = ? WHERE id = ?";
-				ps = connection.prepareStatement( query );
 
-				ps.setString( 1, record.getSearchKey() );
-				ps.setObject( 2, instantToTimestamp( record.getCreateTime() ) );
-				ps.setObject( 3, instantToTimestamp( record.getModifyTime() ) );
-				ps.setBlob( 4, blob );
-				ps.setLong( 5, record.getID() );
-				logger.info( "about to update " + record.getID() + " in " + tablename );
+			connection.commit();
+
+			logger.info( "saved " + records.size() + " records to " + tablename + ", " + numUpdates + " of them updates" );
+		}
+		catch ( Exception e ) {
+			if ( connection != null ) {
+				try {
+					connection.rollback();
+				}
+				catch ( Exception e2 ) {
+					logger.error( "could not roll back save to " + tablename, e2 );
+				}
+			}
 
-				ps.executeUpdate();
+				//	the inserts were rolled back, so their IDs are no longer valid
+			for ( IStorable record : inserted ) {
+				record.setID( 0 );
 			}
+
+			throw e;
 		}
 		finally {
 			if ( rs != null ) {
 				rs.close();
 			}
+			if ( insert != null ) {
+				insert.close();
+			}
+			if ( update != null ) {
+				update.close();
+			}
+			if ( connection != null ) {
+				connection.setAutoCommit( true );
+				connection.close();
+			}
+		}
+
+		return ret;
+	}
+
+	@Override
+	public int deleteRecords( IStorageTable table, String searchkey ) throws Exception {
+		Connection connection = null;
+		PreparedStatement ps = null;
+
+		String tablename = table.getTablename();
+
+		try {
+			connection = getConnection();
+			ps = connection.prepareStatement( "DELETE FROM " + tablename + " WHERE searchkey = ?" );
+			ps.setString( 1, searchkey );
+
+			int ret = ps.executeUpdate();
+
+			logger.info( "deleted " + ret + " records from " + tablename );
+
+			return ret;
+		}
+		finally {
+			if ( ps != null ) {
+				ps.close();
+			}
+			if ( connection != null ) {
+				connection.close();
+			}
+		}
+	}
+
+	@Override
+	public int deleteRecordsModifiedBefore( IStorageTable table, Instant cutoff ) throws Exception {
+		Connection connection = null;
+		PreparedStatement ps = null;
+
+		String tablename = table.getTablename();
+
+		try {
+			connection = getConnection();
+			ps = connection.prepareStatement( "DELETE FROM " + tablename + " WHERE modified < ?" );
+			ps.setObject( 1, instantToTimestamp( cutoff ) );
+
+			int ret = ps.executeUpdate();
+
+			logger.info( "deleted " + ret + " records from " + tablename );
+
+			return ret;
+		}
+		finally {
 			if ( ps != null ) {
 				ps.close();
 			}
@@ -228,9 +453,51 @@ public class StorageEmbeddedDerby implements IStorage {
 		}
 	}
 
+	/**
+	 * Run a MERGE, and run it again if it lost an insert race to another
+	 * connection. A failed statement doesn't roll back the transaction in
+	 * Derby, so the next try finds the other connection's row and updates it.
+	 */
+	public static int executeMerge( PreparedStatement ps ) throws SQLException {
+		for ( int attempt = 1; ; attempt++ ) {
+			try {
+				return ps.executeUpdate();
+			}
+			catch ( SQLException e ) {
+				if ( !DUPLICATE_KEY_SQLSTATE.equals( e.getSQLState() ) || attempt >= MAX_MERGE_ATTEMPTS ) {
+					throw e;
+				}
+
+				logger.info( "merge collided with another insert, merging again" );
+			}
+		}
+	}
+
+	protected void setRecordParameters( Connection connection, PreparedStatement ps, IStorable record ) throws Exception {
+		Blob blob = connection.createBlob();
+		blob.setBytes( 1, StoragePayloadCodec.encode( record ) );
+
+		ps.setString( 1, record.getSearchKey() );
+		ps.setObject( 2, instantToTimestamp( record.getCreateTime() ) );
+		ps.setObject( 3, instantToTimestamp( record.getModifyTime() ) );
+		ps.setBlob( 4, blob );
+	}
+
 	protected IStorable readRecord( ResultSet rs ) throws Exception {
-		byte[] bytes = rs.getBytes( "payload" );
-		return (IStorable) Utils.getDefaultObjectMapper().readValue( new String( bytes ), Object.class );
+		InputStream in = rs.getBinaryStream( "payload" );
+		IStorable record;
+
+		try {
+			record = (IStorable) StoragePayloadCodec.decode( in );
+		}
+		finally {
+			in.close();
+		}
+
+			//	a new record's payload is written before its ID is known
+		record.setID( rs.getLong( "id" ) );
+
+		return record;
 	}
 
 	protected void createTableInternalIgnoreIfExists( String tablename ) throws Exception {
@@ -268,6 +535,47 @@ public class StorageEmbeddedDerby implements IStorage {
 		}
 	}
 
+	/**
+	 * Lookups are by searchkey and ordered by modified, so with this index
+	 * they don't have to scan the table.
+	 */
+	protected void createIndexInternalIgnoreIfExists( String tablename ) throws Exception {
+		Connection connection = null;
+		Statement stmt = null;
+
+		String definition = "CREATE INDEX ix" + tablename + "searchkey ON " + tablename + "( searchkey, modified )";
+
+		try {
+			connection = getConnection();
+			stmt = connection.createStatement();
+			stmt.executeUpdate( definition );
+
+				//	Derby warns instead of failing if the index already exists
+			if ( !isDuplicateIndexWarning( stmt.getWarnings() ) ) {
+				logger.info( "created index on " + tablename );
+			}
+		}
+		catch ( SQLException e ) {
+			String s = e.toString();
+			if ( s.indexOf( "exists" ) < 0 ) {
+				logger.error( "while creating index on " + tablename, e );
+				throw e;
+			}
+		}
+		finally {
+			if ( stmt != null ) {
+				stmt.close();
+			}
+			if ( connection != null ) {
+				connection.close();
+			}
+		}
+	}
+
+	protected boolean isDuplicateIndexWarning( SQLWarning warning ) {
+		return warning != null && DUPLICATE_INDEX_SQLSTATE.equals( warning.getSQLState() );
+	}
+
 	protected void dropTableInternal( String tablename ) throws Exception {
 		Connection connection = null;
 		Statement stmt = null;
@@ -312,5 +620,9 @@ public class StorageEmbeddedDerby implements IStorage {
 	protected Timestamp instantToTimestamp( Instant inst ) {
 		return inst != null ? Timestamp.from( inst ) : Timestamp.from( Instant.now() );
 	}
+
+	protected Instant timestampToInstant( Timestamp ts ) {
+		return ts != null ? ts.toInstant() : null;
+	}
 }
 
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2018 Chris Kelly
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.tolstoy.basic.app.storage;
+
+import java.io.*;
+import java.util.zip.*;
+import org.apache.commons.io.IOUtils;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tolstoy.basic.app.utils.Utils;
+
+/**
+ * Converts records, or other values like tweet attributes, to and from
+ * the bytes in a payload column.
+ *
+ * Payloads start with a format byte. FORMAT_DEFLATE_JSON is the record's
+ * JSON in UTF-8, compressed with Deflate. Rows written before there was
+ * a format byte are plain JSON, which always starts with '{' or '[', so
+ * they can't be confused with a format byte and are still read the way
+ * they were written.
+ *
+ * The JSON repeats the same type names and keys for every tweet, so it
+ * compresses well.
+ */
+public class StoragePayloadCodec {
+	public static final int FORMAT_DEFLATE_JSON = 1;
+
+	private static final int BUFFER_SIZE = 8192;
+
+	private StoragePayloadCodec() {
+	}
+
+	public static byte[] encode( Object value ) throws Exception {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream( BUFFER_SIZE );
+		bytes.write( FORMAT_DEFLATE_JSON );
+
+		Deflater deflater = new Deflater( Deflater.BEST_SPEED );
+
+		try {
+			DeflaterOutputStream out = new DeflaterOutputStream( bytes, deflater, BUFFER_SIZE );
+			Utils.getDefaultObjectMapper().writeValue( out, value );
+			out.finish();
+		}
+		finally {
+			deflater.end();
+		}
+
+		return bytes.toByteArray();
+	}
+
+	public static Object decode( InputStream in ) throws Exception {
+		BufferedInputStream buffered = new BufferedInputStream( in, BUFFER_SIZE );
+		ObjectMapper mapper = Utils.getDefaultObjectMapper();
+
+		buffered.mark( 1 );
+		int format = buffered.read();
+
+		if ( format == FORMAT_DEFLATE_JSON ) {
+			Inflater inflater = new Inflater();
+
+			try {
+				return mapper.readValue( new InflaterInputStream( buffered, inflater, BUFFER_SIZE ), Object.class );
+			}
+			finally {
+				inflater.end();
+			}
+		}
+
+		if ( format < 0 ) {
+			throw new IOException( "empty payload" );
+		}
+
+			//	written before the format byte, using the platform encoding
+		buffered.reset();
+		byte[] legacy = IOUtils.toByteArray( buffered );
+
+		return mapper.readValue( new String( legacy ), Object.class );
+	}
+}
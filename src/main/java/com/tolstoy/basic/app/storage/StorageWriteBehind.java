@@ -0,0 +1,287 @@
+/*
+ * Copyright 2018 Chris Kelly
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.tolstoy.basic.app.storage;
+
+import java.util.*;
+import java.time.Instant;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import com.tolstoy.basic.api.storage.*;
+
+/**
+ * Wraps another IStorage and writes queued records on its own thread,
+ * so that callers that don't need to wait for a large record to be
+ * written don't have to.
+ *
+ * At most maxQueued records wait to be written; after that,
+ * saveRecordLater() blocks until there's room. A record that's queued
+ * again before it's written is only written once.
+ *
+ * Everything else goes to the wrapped IStorage after the queued writes
+ * are done, so readers see the queued records. The exception is the
+ * writer thread itself (i.e., a listener), which doesn't wait.
+ */
+public class StorageWriteBehind implements IWriteBehindStorage {
+	private static final Logger logger = LogManager.getLogger( StorageWriteBehind.class );
+
+	private IStorage storage;
+	private int maxQueued;
+	private LinkedList<PendingWrite> pending;
+	private int numInFlight;
+	private Exception firstError;
+	private boolean shutdown;
+	private Thread writer;
+
+	public StorageWriteBehind( IStorage storage, int maxQueued ) {
+		this.storage = storage;
+		this.maxQueued = Math.max( 1, maxQueued );
+		this.pending = new LinkedList<PendingWrite>();
+		this.numInFlight = 0;
+		this.firstError = null;
+		this.shutdown = false;
+
+		this.writer = new Thread( new Runnable() {
+			@Override
+			public void run() {
+				writeLoop();
+			}
+		}, "storage-writer" );
+
+		this.writer.setDaemon( true );
+		this.writer.start();
+	}
+
+	@Override
+	public void saveRecordLater( IStorageTable table, IStorable record, IStorageWriteListener listener ) throws Exception {
+		synchronized ( pending ) {
+			if ( shutdown ) {
+				throw new IllegalStateException( "storage writer has been shut down" );
+			}
+
+			for ( PendingWrite write : pending ) {
+				if ( write.table == table && write.record == record ) {
+					write.addListener( listener );
+					logger.info( "merged write to " + table.getTablename() );
+					return;
+				}
+			}
+
+			while ( pending.size() >= maxQueued && !shutdown ) {
+				pending.wait();
+			}
+
+			pending.add( new PendingWrite( table, record, listener ) );
+			pending.notifyAll();
+		}
+	}
+
+	@Override
+	public void flush() throws Exception {
+		synchronized ( pending ) {
+			waitForQueuedWrites();
+
+			Exception e = firstError;
+			firstError = null;
+
+			if ( e != null ) {
+				throw e;
+			}
+		}
+	}
+
+	@Override
+	public void shutdown() {
+		synchronized ( pending ) {
+			shutdown = true;
+			pending.notifyAll();
+		}
+
+		try {
+			writer.join();
+		}
+		catch ( InterruptedException e ) {
+			Thread.currentThread().interrupt();
+		}
+
+		if ( firstError != null ) {
+			logger.error( "a queued write failed before shutdown", firstError );
+		}
+	}
+
+	@Override
+	public void connect() throws Exception {
+		storage.connect();
+	}
+
+	@Override
+	public void ensureTables() throws Exception {
+		storage.ensureTables();
+	}
+
+	@Override
+	public void dropTables() throws Exception {
+		waitForQueuedWrites();
+		storage.dropTables();
+	}
+
+	@Override
+	public IStorable getRecordByID( IStorageTable table, long id ) throws Exception {
+		waitForQueuedWrites();
+		return storage.getRecordByID( table, id );
+	}
+
+	@Override
+	public List<IStorable> getRecords( IStorageTable table, StorageOrdering ordering, int max ) throws Exception {
+		waitForQueuedWrites();
+		return storage.getRecords( table, ordering, max );
+	}
+
+	@Override
+	public List<IStorable> getRecords( IStorageTable table, String searchkey, StorageOrdering ordering, int max ) throws Exception {
+		waitForQueuedWrites();
+		return storage.getRecords( table, searchkey, ordering, max );
+	}
+
+	@Override
+	public List<IStorableHeader> getRecordHeaders( IStorageTable table, StorageOrdering ordering, int max ) throws Exception {
+		waitForQueuedWrites();
+		return storage.getRecordHeaders( table, ordering, max );
+	}
+
+	@Override
+	public List<IStorableHeader> getRecordHeaders( IStorageTable table, String searchkey, StorageOrdering ordering, int max ) throws Exception {
+		waitForQueuedWrites();
+		return storage.getRecordHeaders( table, searchkey, ordering, max );
+	}
+
+	@Override
+	public int visitRecords( IStorageTable table, StorageOrdering ordering, IStorableVisitor visitor ) throws Exception {
+		waitForQueuedWrites();
+		return storage.visitRecords( table, ordering, visitor );
+	}
+
+	@Override
+	public int visitRecords( IStorageTable table, String searchkey, StorageOrdering ordering, IStorableVisitor visitor ) throws Exception {
+		waitForQueuedWrites();
+		return storage.visitRecords( table, searchkey, ordering, visitor );
+	}
+
+	@Override
+	public void saveRecord( IStorageTable table, IStorable record ) throws Exception {
+		waitForQueuedWrites();
+		storage.saveRecord( table, record );
+	}
+
+	@Override
+	public List<Long> saveRecords( IStorageTable table, Collection<? extends IStorable> records ) throws Exception {
+		waitForQueuedWrites();
+		return storage.saveRecords( table, records );
+	}
+
+	@Override
+	public int deleteRecords( IStorageTable table, String searchkey ) throws Exception {
+		waitForQueuedWrites();
+		return storage.deleteRecords( table, searchkey );
+	}
+
+	@Override
+	public int deleteRecordsModifiedBefore( IStorageTable table, Instant cutoff ) throws Exception {
+		waitForQueuedWrites();
+		return storage.deleteRecordsModifiedBefore( table, cutoff );
+	}
+
+	protected void waitForQueuedWrites() throws InterruptedException {
+		if ( Thread.currentThread() == writer ) {
+			return;
+		}
+
+		synchronized ( pending ) {
+			while ( !pending.isEmpty() || numInFlight > 0 ) {
+				pending.wait();
+			}
+		}
+	}
+
+	protected void writeLoop() {
+		while ( true ) {
+			PendingWrite write;
+
+			synchronized ( pending ) {
+				while ( pending.isEmpty() && !shutdown ) {
+					try {
+						pending.wait();
+					}
+					catch ( InterruptedException e ) {
+						logger.error( "storage writer interrupted", e );
+					}
+				}
+
+				if ( pending.isEmpty() ) {
+					return;
+				}
+
+				write = pending.removeFirst();
+				numInFlight++;
+				pending.notifyAll();
+			}
+
+			Exception error = null;
+
+			try {
+				storage.saveRecord( write.table, write.record );
+			}
+			catch ( Exception e ) {
+				logger.error( "cannot write record to " + write.table.getTablename(), e );
+				error = e;
+			}
+
+				//	before numInFlight goes down, so that flush() also waits for the listeners
+			for ( IStorageWriteListener listener : write.listeners ) {
+				try {
+					listener.recordWritten( write.table, write.record, error );
+				}
+				catch ( Exception e ) {
+					logger.error( "storage write listener failed", e );
+				}
+			}
+
+			synchronized ( pending ) {
+				numInFlight--;
+				if ( error != null && firstError == null ) {
+					firstError = error;
+				}
+				pending.notifyAll();
+			}
+		}
+	}
+
+	private static class PendingWrite {
+		private IStorageTable table;
+		private IStorable record;
+		private List<IStorageWriteListener> listeners;
+
+		PendingWrite( IStorageTable table, IStorable record, IStorageWriteListener listener ) {
+			this.table = table;
+			this.record = record;
+			this.listeners = new ArrayList<IStorageWriteListener>( 1 );
+			addListener( listener );
+		}
+
+		void addListener( IStorageWriteListener listener ) {
+			if ( listener != null ) {
+				listeners.add( listener );
+			}
+		}
+	}
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright 2018 Chris Kelly
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.tolstoy.basic.app.tweet;
+
+import java.util.List;
+import java.util.AbstractList;
+import java.util.RandomAccess;
+import com.tolstoy.basic.api.tweet.ITweet;
+
+/**
+ * List of tweets that keeps an index from tweet ID to position. Adding
+ * to the end updates the index; any other change through this list drops
+ * it, to be rebuilt on the next lookup. A lookup never scans the list
+ * unless the index has to be rebuilt.
+ *
+ * Changes made to the wrapped list without going through this one are
+ * only noticed if they change its size.
+ */
+class IndexedTweetList extends AbstractList<ITweet> implements RandomAccess {
+	private final List<ITweet> list;
+
+	private LongIntMap index;
+	private int indexedSize;
+
+	IndexedTweetList( List<ITweet> list ) {
+		this.list = list;
+	}
+
+	/**
+	 * @return the wrapped list
+	 */
+	List<ITweet> getList() {
+		return list;
+	}
+
+	/**
+	 * @return the position of the first tweet with the ID, or -1
+	 */
+	synchronized int indexOfID( long id ) {
+		if ( index == null || indexedSize != list.size() ) {
+			rebuildIndex();
+		}
+
+		int position = index.get( id );
+
+			//	a tweet's ID was changed after it was added
+		if ( position >= 0 && list.get( position ).getID() != id ) {
+			rebuildIndex();
+			position = index.get( id );
+		}
+
+		return position;
+	}
+
+	@Override
+	public synchronized ITweet get( int position ) {
+		return list.get( position );
+	}
+
+	@Override
+	public synchronized int size() {
+		return list.size();
+	}
+
+	@Override
+	public synchronized ITweet set( int position, ITweet tweet ) {
+		ITweet previous = list.set( position, tweet );
+
+		if ( previous == null || tweet == null || previous.getID() != tweet.getID() ) {
+			index = null;
+		}
+
+		return previous;
+	}
+
+	@Override
+	public synchronized void add( int position, ITweet tweet ) {
+		list.add( position, tweet );
+		modCount++;
+
+		if ( index != null && position == indexedSize && position == list.size() - 1 ) {
+			index.putIfAbsent( tweet.getID(), position );
+			indexedSize++;
+		}
+		else {
+			index = null;
+		}
+	}
+
+	@Override
+	public synchronized ITweet remove( int position ) {
+		ITweet previous = list.remove( position );
+		modCount++;
+		index = null;
+
+		return previous;
+	}
+
+	@Override
+	protected synchronized void removeRange( int fromPosition, int toPosition ) {
+		list.subList( fromPosition, toPosition ).clear();
+		modCount++;
+		index = null;
+	}
+
+	private void rebuildIndex() {
+		index = new LongIntMap( list.size() );
+
+		int position = 0;
+		for ( ITweet tweet : list ) {
+			index.putIfAbsent( tweet.getID(), position++ );
+		}
+
+		indexedSize = list.size();
+	}
+}
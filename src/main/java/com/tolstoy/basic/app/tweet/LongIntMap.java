@@ -0,0 +1,113 @@
+/*
+ * Copyright 2018 Chris Kelly
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.tolstoy.basic.app.tweet;
+
+import java.util.Arrays;
+
+/**
+ * Map from long to non-negative int that doesn't box its keys, for
+ * indexing tweets by ID. Open addressing with linear probing; there's no
+ * removal, just make a new one.
+ */
+class LongIntMap {
+	private static final int MIN_CAPACITY = 16;
+
+	private long[] keys;
+	private int[] values;
+	private int size;
+	private int mask;
+
+	LongIntMap( int expectedSize ) {
+		int capacity = MIN_CAPACITY;
+		while ( capacity < expectedSize * 2 ) {
+			capacity <<= 1;
+		}
+
+		allocate( capacity );
+	}
+
+	/**
+	 * @return the value for the key, or -1 if there isn't one
+	 */
+	int get( long key ) {
+		int slot = slotFor( key );
+
+		while ( values[ slot ] != 0 ) {
+			if ( keys[ slot ] == key ) {
+				return values[ slot ] - 1;
+			}
+			slot = ( slot + 1 ) & mask;
+		}
+
+		return -1;
+	}
+
+	/**
+	 * Add the key unless it's already there.
+	 * @param value must be 0 or more
+	 */
+	void putIfAbsent( long key, int value ) {
+		if ( ( size + 1 ) * 2 > keys.length ) {
+			grow();
+		}
+
+		int slot = slotFor( key );
+
+		while ( values[ slot ] != 0 ) {
+			if ( keys[ slot ] == key ) {
+				return;
+			}
+			slot = ( slot + 1 ) & mask;
+		}
+
+			//	0 marks an empty slot, so values are stored plus one
+		keys[ slot ] = key;
+		values[ slot ] = value + 1;
+		size++;
+	}
+
+	int size() {
+		return size;
+	}
+
+	private int slotFor( long key ) {
+		long h = key * 0x9E3779B97F4A7C15L;
+		return (int) ( h ^ ( h >>> 32 ) ) & mask;
+	}
+
+	private void grow() {
+		long[] oldKeys = keys;
+		int[] oldValues = values;
+
+		allocate( keys.length * 2 );
+
+		for ( int i = 0; i < oldKeys.length; i++ ) {
+			if ( oldValues[ i ] != 0 ) {
+				putIfAbsent( oldKeys[ i ], oldValues[ i ] - 1 );
+			}
+		}
+	}
+
+	private void allocate( int capacity ) {
+		keys = new long[ capacity ];
+		values = new int[ capacity ];
+		mask = capacity - 1;
+		size = 0;
+	}
+
+	@Override
+	public String toString() {
+		return "LongIntMap: size=" + size + ", capacity=" + keys.length;
+	}
+}
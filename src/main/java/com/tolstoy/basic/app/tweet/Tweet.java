@@ -51,6 +51,32 @@ class Tweet implements ITweet {
 	@JsonProperty
 	private long id;
 
+		//	parsed from the attributes when first needed. The attributes
+		//	are still what's serialized.
+	@JsonIgnore
+	private transient volatile boolean parsed;
+
+	@JsonIgnore
+	private transient long time;
+
+	@JsonIgnore
+	private transient int replyCount;
+
+	@JsonIgnore
+	private transient int retweetCount;
+
+	@JsonIgnore
+	private transient int favoriteCount;
+
+	@JsonIgnore
+	private transient long conversationID;
+
+	@JsonIgnore
+	private transient long repliedToTweetID;
+
+	@JsonIgnore
+	private transient TweetSupposedQuality supposedQuality;
+
 	Tweet() {
 		this.id = 0;
 		this.attributes = new HashMap<String,String>();
@@ -61,10 +87,10 @@ class Tweet implements ITweet {
 
 	Tweet( long id, Map<String,String> attributes, StringList classes, StringList mentions, ITweetUser user ) {
 		this.id = id;
-		this.attributes = attributes;
+		this.attributes = TweetInterner.internAttributes( attributes );
 		this.classes = classes;
 		this.mentions = mentions;
-		this.user = user;
+		this.user = internUser( user );
 	}
 
 	@Override
@@ -150,13 +176,49 @@ class Tweet implements ITweet {
 
 	@Override
 	public void setUser( ITweetUser user ) {
-		this.user = user;
+		this.user = internUser( user );
 	}
 
 	@JsonIgnore
 	@Override
 	public TweetSupposedQuality getSupposedQuality() {
-		return TweetSupposedQuality.getMatching( Utils.trimDefault( getAttribute( "quality" ) ) );
+		parseAttributes();
+		return supposedQuality;
+	}
+
+	@JsonIgnore
+	@Override
+	public long getTime() {
+		parseAttributes();
+		return time;
+	}
+
+	@JsonIgnore
+	@Override
+	public int getReplyCount() {
+		parseAttributes();
+		return replyCount;
+	}
+
+	@JsonIgnore
+	@Override
+	public int getRetweetCount() {
+		parseAttributes();
+		return retweetCount;
+	}
+
+	@JsonIgnore
+	@Override
+	public int getFavoriteCount() {
+		parseAttributes();
+		return favoriteCount;
+	}
+
+	@JsonIgnore
+	@Override
+	public long getConversationID() {
+		parseAttributes();
+		return conversationID;
 	}
 
 	@Override
@@ -166,7 +228,8 @@ class Tweet implements ITweet {
 
 	@Override
 	public void setAttribute( String key, String value ) {
-		attributes.put( key, value );
+		attributes.put( TweetInterner.internKey( key ), TweetInterner.internValue( key, value ) );
+		parsed = false;
 	}
 
 	@Override
@@ -176,7 +239,8 @@ class Tweet implements ITweet {
 
 	@Override
 	public void setAttributes( Map<String,String> attributes ) {
-		this.attributes = attributes;
+		this.attributes = TweetInterner.internAttributes( attributes );
+		parsed = false;
 	}
 
 	@Override
@@ -212,16 +276,11 @@ class Tweet implements ITweet {
 		return !Utils.isEmpty( attributes.get( "permalinkpath" ) );
 	}
 
-		//if hasparenttweet="true" && isreplyto="true", ID of the tweet replied to will be conversationid
 	@JsonIgnore
 	@Override
 	public long getRepliedToTweetID() {
-		if ( !Utils.isStringTrue( attributes.get( "hasparenttweet" ) ) ||
-				!Utils.isStringTrue( attributes.get( "isreplyto" ) ) ) {
-			return 0L;
-		}
-
-		return Utils.parseLongDefault( attributes.get( "conversationid" ) );
+		parseAttributes();
+		return repliedToTweetID;
 	}
 
 	@JsonIgnore
@@ -236,6 +295,38 @@ class Tweet implements ITweet {
 		return Utils.parseLongDefault( attributes.get( "repliedtouserid" ) );
 	}
 
+	/**
+	 * Parse the typed values from the attributes, unless that's already
+	 * been done since they last changed. The values are written before
+	 * the volatile flag, so other threads see them once they see the flag.
+	 */
+	protected void parseAttributes() {
+		if ( parsed ) {
+			return;
+		}
+
+		time = Utils.parseLongDefault( attributes.get( "time" ) );
+		replyCount = Utils.parseIntDefault( attributes.get( "replycount" ) );
+		retweetCount = Utils.parseIntDefault( attributes.get( "retweetcount" ) );
+		favoriteCount = Utils.parseIntDefault( attributes.get( "favoritecount" ) );
+		conversationID = Utils.parseLongDefault( attributes.get( "conversationid" ) );
+		supposedQuality = TweetSupposedQuality.getMatching( Utils.trimDefault( attributes.get( "quality" ) ) );
+
+			//if hasparenttweet="true" && isreplyto="true", ID of the tweet replied to will be conversationid
+		if ( Utils.isStringTrue( attributes.get( "hasparenttweet" ) ) && Utils.isStringTrue( attributes.get( "isreplyto" ) ) ) {
+			repliedToTweetID = conversationID;
+		}
+		else {
+			repliedToTweetID = 0L;
+		}
+
+		parsed = true;
+	}
+
+	private static ITweetUser internUser( ITweetUser user ) {
+		return user instanceof TweetUser ? TweetInterner.internUser( (TweetUser) user ) : user;
+	}
+
 	@Override
 	public int hashCode() {
 		return Objects.hash( attributes, classes, mentions, id );
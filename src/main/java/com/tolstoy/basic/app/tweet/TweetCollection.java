@@ -27,6 +27,7 @@ import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import org.apache.commons.lang3.StringUtils;
 import com.tolstoy.basic.api.tweet.ITweetCollection;
 import com.tolstoy.basic.api.tweet.ITweet;
+import com.tolstoy.basic.api.tweet.TweetAttributeRetentionPolicy;
 
 @JsonIgnoreProperties(ignoreUnknown=true)
 class TweetCollection implements ITweetCollection {
@@ -42,6 +43,11 @@ class TweetCollection implements ITweetCollection {
 	@JsonProperty
 	private Instant retrievalTime;
 
+		//	wraps tweets so that lookups by ID don't scan the list. Made
+		//	when it's first needed, including after deserializing.
+	@JsonIgnore
+	private transient IndexedTweetList tweetList;
+
 	TweetCollection() {
 		this.tweets = new ArrayList<ITweet>();
 		this.retrievalTime = Instant.now();
@@ -55,47 +61,50 @@ class TweetCollection implements ITweetCollection {
 	}
 
 	@Override
-	public ITweet getTweetByID( long id ) {
-		for ( ITweet tweet : tweets ) {
-			if ( tweet.getID() == id ) {
-				return tweet;
-			}
-		}
+	public synchronized ITweet getTweetByID( long id ) {
+		int position = getPositionByID( id );
 
-		return null;
+		return position >= 0 ? tweets.get( position ) : null;
 	}
 
 	@Override
 	public int getTweetOrderByID( long id ) {
-		int order = 1;
-		for ( ITweet tweet : tweets ) {
-			if ( tweet.getID() == id ) {
-				return order;
-			}
-			order++;
-		}
-
-		return 0;
+		return getPositionByID( id ) + 1;
 	}
 
+	/**
+	 * Changes made to the returned list keep the index up to date.
+	 */
+	@JsonIgnore
 	@Override
-	public List<ITweet> getTweets() {
-		return tweets;
+	public synchronized List<ITweet> getTweets() {
+		return getTweetList();
 	}
 
 	@Override
-	public void setTweets( List<ITweet> tweets ) {
-		this.tweets = tweets;
+	public synchronized void setTweets( List<ITweet> tweets ) {
+		if ( tweets instanceof IndexedTweetList ) {
+			this.tweetList = (IndexedTweetList) tweets;
+			this.tweets = tweetList.getList();
+		}
+		else {
+			this.tweets = tweets;
+			this.tweetList = null;
+		}
 	}
 
 	@Override
-	public void addTweet( ITweet tweet ) {
-		tweets.add( tweet );
+	public synchronized void addTweet( ITweet tweet ) {
+		getTweetList().add( tweet );
 	}
 
 	@Override
-	public void removeTweetByID( long id ) {
-		Iterator<ITweet> iter = tweets.iterator();
+	public synchronized void removeTweetByID( long id ) {
+		if ( getPositionByID( id ) < 0 ) {
+			return;
+		}
+
+		Iterator<ITweet> iter = getTweetList().iterator();
 
 		while ( iter.hasNext() ) {
 			ITweet tweet = iter.next();
@@ -106,6 +115,33 @@ class TweetCollection implements ITweetCollection {
 		}
 	}
 
+	@Override
+	public synchronized int applyAttributeRetention( TweetAttributeRetentionPolicy policy ) throws Exception {
+		return tweets != null ? policy.apply( getTweetList() ) : 0;
+	}
+
+	/**
+	 * @return the position of the first tweet with the ID, or -1
+	 */
+	protected synchronized int getPositionByID( long id ) {
+		return tweets != null ? getTweetList().indexOfID( id ) : -1;
+	}
+
+	/**
+	 * @return tweets wrapped in an IndexedTweetList, or null
+	 */
+	protected synchronized IndexedTweetList getTweetList() {
+		if ( tweets == null ) {
+			return null;
+		}
+
+		if ( tweetList == null || tweetList.getList() != tweets ) {
+			tweetList = new IndexedTweetList( tweets );
+		}
+
+		return tweetList;
+	}
+
 	@Override
 	public Instant getRetrievalTime() {
 		return retrievalTime;
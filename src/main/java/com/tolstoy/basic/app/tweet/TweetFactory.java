@@ -53,27 +53,27 @@ public class TweetFactory implements ITweetFactory {
 
 	@Override
 	public ITweetUser makeTweetUser( String handle ) {
-		return new TweetUser( handle, 0, null, TweetUserVerifiedStatus.UNKNOWN, "" );
+		return TweetInterner.internUser( new TweetUser( handle, 0, null, TweetUserVerifiedStatus.UNKNOWN, "" ) );
 	}
 
 	@Override
 	public ITweetUser makeTweetUser( String handle, long id ) {
-		return new TweetUser( handle, id, null, TweetUserVerifiedStatus.UNKNOWN, "" );
+		return TweetInterner.internUser( new TweetUser( handle, id, null, TweetUserVerifiedStatus.UNKNOWN, "" ) );
 	}
 
 	@Override
 	public ITweetUser makeTweetUser( String handle, long id, String displayName ) {
-		return new TweetUser( handle, id, displayName, TweetUserVerifiedStatus.UNKNOWN, "" );
+		return TweetInterner.internUser( new TweetUser( handle, id, displayName, TweetUserVerifiedStatus.UNKNOWN, "" ) );
 	}
 
 	@Override
 	public ITweetUser makeTweetUser( String handle, long id, String displayName, TweetUserVerifiedStatus verifiedStatus ) {
-		return new TweetUser( handle, id, displayName, verifiedStatus, "" );
+		return TweetInterner.internUser( new TweetUser( handle, id, displayName, verifiedStatus, "" ) );
 	}
 
 	@Override
 	public ITweetUser makeTweetUser( String handle, long id, String displayName, TweetUserVerifiedStatus verifiedStatus, String avatarURL ) {
-		return new TweetUser( handle, id, displayName, verifiedStatus, avatarURL );
+		return TweetInterner.internUser( new TweetUser( handle, id, displayName, verifiedStatus, avatarURL ) );
 	}
 }
 
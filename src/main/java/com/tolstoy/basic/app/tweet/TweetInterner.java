@@ -0,0 +1,145 @@
+/*
+ * Copyright 2018 Chris Kelly
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.tolstoy.basic.app.tweet;
+
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import com.tolstoy.basic.api.tweet.TweetAttributeRetentionPolicy;
+
+/**
+ * Keeps one canonical copy of the users, attribute keys and common
+ * attribute values shared by many tweets. A reply run has thousands of
+ * tweets with the same forty keys, the same "true", "false" and "en"
+ * values, and the same few users.
+ *
+ * Only the values of the attributes in INTERNED_VALUE_NAMES are
+ * interned: the others are mostly text, HTML, times and IDs, which
+ * rarely repeat. Keys and those values are few, so they're held in a
+ * concurrent map, up to MAX_INTERNED_STRINGS of them. Users are weakly
+ * referenced, so a user no longer used by a tweet can be collected, and
+ * are split across USER_STRIPES locks so that threads seldom wait on
+ * each other.
+ */
+final class TweetInterner {
+	static final Set<String> INTERNED_VALUE_NAMES = new HashSet<String>( Arrays.asList(
+		"quality",
+		"tweetlanguage",
+		"disclosuretype",
+		"componentcontext",
+		"verifiedText",
+		"followsyou",
+		"youfollow",
+		"youblock",
+		"hascards",
+		"hasparenttweet",
+		"isreplyto",
+		"tweetstatinitialized",
+		TweetAttributeRetentionPolicy.ATTR_OFFLOADED
+	) );
+
+	static final int MAX_INTERNED_STRINGS = 4096;
+
+	private static final int USER_STRIPES = 16;
+
+	private static final ConcurrentMap<String,String> strings = new ConcurrentHashMap<String,String>();
+
+	private static final UserPool[] userPools = new UserPool[ USER_STRIPES ];
+
+	static {
+		for ( int i = 0; i < USER_STRIPES; i++ ) {
+			userPools[ i ] = new UserPool();
+		}
+	}
+
+	private TweetInterner() {
+	}
+
+	static TweetUser internUser( TweetUser user ) {
+		if ( user == null ) {
+			return null;
+		}
+
+		return userPools[ ( user.hashCode() & 0x7fffffff ) % USER_STRIPES ].canonicalize( user );
+	}
+
+	static String internKey( String key ) {
+		return key != null ? canonicalize( key ) : null;
+	}
+
+	static String internValue( String key, String value ) {
+		if ( value == null || !INTERNED_VALUE_NAMES.contains( key ) ) {
+			return value;
+		}
+
+		return canonicalize( value );
+	}
+
+	/**
+	 * Copy attributes into a new map using the canonical keys and
+	 * values.
+	 * @return a new map, or null if attributes is null
+	 */
+	static Map<String,String> internAttributes( Map<String,String> attributes ) {
+		if ( attributes == null ) {
+			return null;
+		}
+
+		Map<String,String> ret = new HashMap<String,String>( Math.max( 16, (int) ( attributes.size() / 0.75f ) + 1 ) );
+
+		for ( Map.Entry<String,String> entry : attributes.entrySet() ) {
+			ret.put( internKey( entry.getKey() ), internValue( entry.getKey(), entry.getValue() ) );
+		}
+
+		return ret;
+	}
+
+	private static String canonicalize( String s ) {
+		String existing = strings.get( s );
+		if ( existing != null ) {
+			return existing;
+		}
+
+			//	something is producing far more distinct strings than expected
+		if ( strings.size() >= MAX_INTERNED_STRINGS ) {
+			return s;
+		}
+
+		existing = strings.putIfAbsent( s, s );
+
+		return existing != null ? existing : s;
+	}
+
+	private static class UserPool {
+		private final Map<TweetUser,WeakReference<TweetUser>> pool = new WeakHashMap<TweetUser,WeakReference<TweetUser>>();
+
+		synchronized TweetUser canonicalize( TweetUser user ) {
+			WeakReference<TweetUser> ref = pool.get( user );
+			TweetUser existing = ref != null ? ref.get() : null;
+			if ( existing != null ) {
+				return existing;
+			}
+
+			pool.put( user, new WeakReference<TweetUser>( user ) );
+
+			return user;
+		}
+	}
+}
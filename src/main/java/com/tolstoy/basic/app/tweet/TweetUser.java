@@ -25,6 +25,10 @@ import com.tolstoy.basic.api.tweet.ITweetUser;
 import com.tolstoy.basic.api.tweet.TweetUserVerifiedStatus;
 import com.tolstoy.basic.app.utils.Utils;
 
+/**
+ * Immutable, so that tweets from the same user can share one instance;
+ * see TweetInterner.
+ */
 @JsonIgnoreProperties(ignoreUnknown=true)
 class TweetUser implements ITweetUser {
 	@JsonIgnore
@@ -103,10 +107,10 @@ class TweetUser implements ITweetUser {
 
 		TweetUser other = (TweetUser) obj;
 
-		return handle.equals( other.handle ) &&
-				displayName.equals( other.displayName ) &&
-				avatarURL.equals( other.avatarURL ) &&
-				verifiedStatus == verifiedStatus &&
+		return Objects.equals( handle, other.handle ) &&
+				Objects.equals( displayName, other.displayName ) &&
+				Objects.equals( avatarURL, other.avatarURL ) &&
+				verifiedStatus == other.verifiedStatus &&
 				id == other.id;
 	}
 
@@ -29,7 +29,13 @@ import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 public final class Utils {
 	private static final Logger logger = LogManager.getLogger( Utils.class );
 
-	private static final DateFormat dateFormat = new SimpleDateFormat( "MM/dd/yy hh:mm:ss" );	//	TODO i18n
+		//	SimpleDateFormat isn't thread safe, so each thread gets its own
+	private static final ThreadLocal<DateFormat> dateFormat = new ThreadLocal<DateFormat>() {
+		@Override
+		protected DateFormat initialValue() {
+			return new SimpleDateFormat( "MM/dd/yy hh:mm:ss" );	//	TODO i18n
+		}
+	};
 
 	private static ObjectMapper mapper;
 
@@ -65,7 +71,7 @@ public final class Utils {
 	}
 
 	public static String formatTimestampString( String s ) throws Exception {
-		return dateFormat.format( new Date( 1000L * Integer.parseInt( s ) ) );
+		return dateFormat.get().format( new Date( 1000L * Integer.parseInt( s ) ) );
 	}
 
 	public static String formatTimestampString( String s, String defaultValue ) {
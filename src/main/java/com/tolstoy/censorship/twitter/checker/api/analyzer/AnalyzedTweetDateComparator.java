@@ -17,7 +17,6 @@ import java.util.Comparator;
 import java.io.Serializable;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
-import com.tolstoy.basic.app.utils.Utils;
 
 public class AnalyzedTweetDateComparator implements Comparator<IAnalyzedTweet>, Serializable {
 	private static final Logger logger = LogManager.getLogger( AnalyzedTweetDateComparator.class );
@@ -30,9 +29,9 @@ public class AnalyzedTweetDateComparator implements Comparator<IAnalyzedTweet>,
 
 	@Override
 	public int compare( IAnalyzedTweet a, IAnalyzedTweet b ) {
-		int dateA = Utils.parseIntDefault( a.getTweet().getAttribute( "time" ) );
-		int dateB = Utils.parseIntDefault( b.getTweet().getAttribute( "time" ) );
+		long dateA = a.getTweet().getTime();
+		long dateB = b.getTweet().getTime();
 
-		return direction == AnalyzedTweetComparatorDirection.DESC ? dateB - dateA : dateA - dateB;
+		return direction == AnalyzedTweetComparatorDirection.DESC ? Long.compare( dateB, dateA ) : Long.compare( dateA, dateB );
 	}
 }
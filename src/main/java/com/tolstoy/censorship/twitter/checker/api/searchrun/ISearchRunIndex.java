@@ -0,0 +1,48 @@
+/*
+ * Copyright 2018 Chris Kelly
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.tolstoy.censorship.twitter.checker.api.searchrun;
+
+import java.util.List;
+
+/**
+ * Keeps the tweets in stored search runs in their own tables, so that
+ * they can be looked up without reading whole search runs.
+ *
+ * The search run itself is still stored as a record in IStorage, and
+ * that's the source of truth: everything here can be rebuilt from the
+ * stored search runs.
+ */
+public interface ISearchRunIndex {
+	void connect() throws Exception;
+	void ensureTables() throws Exception;
+
+	/**
+	 * Add the tweets and observations in the search run, replacing any
+	 * that were already added for the search run.
+	 * @param searchRun a search run that has been saved, so that it has an ID
+	 */
+	void indexSearchRun( ISearchRun searchRun ) throws Exception;
+
+	/**
+	 * @param tweetID a tweet ID
+	 * @return every time the tweet was seen on a reply page, newest search run first
+	 */
+	List<ISearchRunTweetObservation> getObservationsOfTweet( long tweetID ) throws Exception;
+
+	/**
+	 * @param searchRunID a search run ID
+	 * @return the tweets seen on the reply pages in the search run
+	 */
+	List<ISearchRunTweetObservation> getObservationsInSearchRun( long searchRunID ) throws Exception;
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright 2018 Chris Kelly
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.tolstoy.censorship.twitter.checker.api.searchrun;
+
+import java.time.Instant;
+
+/**
+ * A tweet that was seen on a reply page during a search run, or a
+ * user's tweet that wasn't found on the page it should have been on.
+ */
+public interface ISearchRunTweetObservation {
+	String QUALITY_NOT_FOUND = "notfound";
+
+	long getSearchRunID();
+	Instant getSearchRunTime();
+
+	/** @return the ID of the user's tweet that the page was loaded for */
+	long getSourceTweetID();
+
+	/** @return the ID of the tweet whose page this is */
+	long getPageTweetID();
+
+	long getTweetID();
+
+	/** @return where the tweet was on the page, starting at 1, or 0 if it wasn't found */
+	int getPageOrder();
+
+	/**
+	 * @return the tweet's TweetSupposedQuality key as it was in this search
+	 * run, or QUALITY_NOT_FOUND
+	 */
+	String getQuality();
+}
@@ -0,0 +1,30 @@
+/*
+ * Copyright 2018 Chris Kelly
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.tolstoy.censorship.twitter.checker.api.searchrun;
+
+/**
+ * A processor that changes the search run, for instance by saving it,
+ * which sets its ID. The changes can finish after process() returns.
+ *
+ * SearchRunProcessorPipeline runs these first, and only starts the other
+ * processors after awaitChanges() has returned, so that they see the
+ * finished search run.
+ */
+public interface ISearchRunWritingProcessor extends ISearchRunProcessor {
+	/**
+	 * Wait until the changes that process() started for the search run
+	 * have been made. Returns at once if there aren't any.
+	 */
+	void awaitChanges( ISearchRun searchRun ) throws InterruptedException;
+}
@@ -14,6 +14,7 @@
 package com.tolstoy.censorship.twitter.checker.api.snapshot;
 
 import java.time.Instant;
+import com.tolstoy.basic.api.tweet.TweetAttributeRetentionPolicy;
 
 public interface ISnapshot {
 	String getURL();
@@ -25,4 +26,10 @@ public interface ISnapshot {
 	void setTitle( String title );
 	void setRetrievalTime( Instant retrievalTime );
 	void setComplete( boolean isComplete );
+
+	/**
+	 * Remove heavy attributes from the tweets in the snapshot.
+	 * @return the number of tweets that were changed
+	 */
+	int applyAttributeRetention( TweetAttributeRetentionPolicy policy ) throws Exception;
 }
@@ -24,6 +24,12 @@ public interface ISnapshotUserPageIndividualTweet extends ISnapshotUserPage {
 	int getNumLikes();
 	int getNumReplies();
 
+	/**
+	 * @return true if scrolling stopped once a wanted tweet was on the
+	 * page, so the tweets below it weren't loaded
+	 */
+	boolean getStoppedEarly();
+
 	void setIndividualTweet( ITweet individualTweet );
 
 	void setTweetID( long tweetID );
@@ -31,4 +37,6 @@ public interface ISnapshotUserPageIndividualTweet extends ISnapshotUserPage {
 	void setNumRetweets( int numRetweets );
 	void setNumLikes( int numLikes );
 	void setNumReplies( int numReplies );
+
+	void setStoppedEarly( boolean stoppedEarly );
 }
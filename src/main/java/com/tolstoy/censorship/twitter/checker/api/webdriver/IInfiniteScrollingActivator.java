@@ -16,4 +16,20 @@ package com.tolstoy.censorship.twitter.checker.api.webdriver;
 public interface IInfiniteScrollingActivator {
 	void activate( int numberOfPages ) throws Exception;
 	boolean getComplete();
+
+	/**
+	 * @param stopCondition checked before each screen, or null to
+	 * always scroll to the end or the page limit
+	 */
+	void setStopCondition( IScrollStopCondition stopCondition );
+
+	/**
+	 * @return true if scrolling ended because the stop condition was satisfied
+	 */
+	boolean getStopped();
+
+	/**
+	 * @param stepListener called after each new screen has loaded, or null
+	 */
+	void setStepListener( IScrollStepListener stepListener );
 }
@@ -13,6 +13,7 @@
  */
 package com.tolstoy.censorship.twitter.checker.api.webdriver;
 
+import java.util.Collection;
 import org.openqa.selenium.WebDriver;
 import com.tolstoy.basic.api.tweet.ITweetCollection;
 import com.tolstoy.censorship.twitter.checker.api.snapshot.ISnapshotUserPageTimeline;
@@ -27,6 +28,10 @@ public interface IWebDriverFactory {
 																IWebDriverUtils driverutils,
 																InfiniteScrollingActivatorType type );
 
+	IScrollStopCondition makeTweetPresentStopCondition( Collection<Long> tweetIDs );
+
+	IScrollStopCondition makeReachedTweetStopCondition( long tweetID );
+
 	ITweetCollection makeTweetCollectionFromURL( WebDriver driver,
 													IWebDriverUtils driverutils,
 													IInfiniteScrollingActivator infiniteScroller,
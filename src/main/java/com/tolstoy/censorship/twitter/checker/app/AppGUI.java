@@ -31,6 +31,8 @@ import com.tolstoy.censorship.twitter.checker.api.searchrun.*;
 import com.tolstoy.censorship.twitter.checker.app.gui.*;
 import com.tolstoy.censorship.twitter.checker.app.helpers.SearchRunRepliesBuilder;
 import com.tolstoy.censorship.twitter.checker.app.helpers.SearchRunTimelineBuilder;
+import com.tolstoy.censorship.twitter.checker.app.helpers.WebDriverSessionManager;
+import com.tolstoy.censorship.twitter.checker.app.helpers.SearchRunProcessorPipeline;
 import com.tolstoy.censorship.twitter.checker.app.helpers.SearchRunProcessorWriteReport;
 import com.tolstoy.censorship.twitter.checker.app.helpers.IAppDirectories;
 import com.tolstoy.censorship.twitter.checker.api.analyzer.IAnalysisReportFactory;
@@ -46,12 +48,13 @@ public class AppGUI implements RunEventListener, PreferencesEventListener, Windo
 	private IPreferencesFactory prefsFactory;
 	private IPreferences prefs;
 	private IWebDriverFactory webDriverFactory;
+	private WebDriverSessionManager webDriverSessionManager;
 	private ISearchRunFactory searchRunFactory;
 	private ISnapshotFactory snapshotFactory;
 	private ITweetFactory tweetFactory;
 	private IAnalysisReportFactory analysisReportFactory;
 	private IAppDirectories appDirectories;
-	private List<ISearchRunProcessor> searchRunProcessors;
+	private SearchRunProcessorPipeline searchRunProcessorPipeline;
 	private List<ElementDescriptor> guiElements;
 	private MainGUI gui;
 
@@ -80,24 +83,29 @@ public class AppGUI implements RunEventListener, PreferencesEventListener, Windo
 	}
 
 	abstract class WorkerProcessingBase<T extends ISearchRun> extends WorkerBase<T> implements IStatusMessageReceiver {
+		protected abstract T buildSearchRun();
+
+			//	the processors run here too, so that the EDT isn't blocked while they write
+		@Override
+		public T doInBackground() {
+			T searchRun = buildSearchRun();
+
+			if ( searchRun != null ) {
+				try {
+					searchRunProcessorPipeline.process( searchRun, this );
+				}
+				catch ( InterruptedException e ) {
+					logger.error( "interrupted while processing search run", e );
+				}
+			}
+
+			return searchRun;
+		}
+
 		@Override
 		public void done() {
 			try {
-				T searchRun = get();
-				//logger.info( searchRun );
-
-				if ( searchRun != null ) {
-					for ( ISearchRunProcessor processor : searchRunProcessors ) {
-						try {
-							processor.process( searchRun, this );
-						}
-						catch ( Exception e ) {
-							String s = bundle.getString( "exc_srp", processor.getDescription(), e.getMessage() );
-							logger.error( s, e );
-							gui.addMessage( new StatusMessage( s, StatusMessageSeverity.ERROR ) );
-						}
-					}
-				}
+				get();
 			}
 			catch ( Exception e ) {
 				String s = bundle.getString( "exc_getresults", e.getMessage() );
@@ -112,13 +120,14 @@ public class AppGUI implements RunEventListener, PreferencesEventListener, Windo
 
 	class RepliesWorker extends WorkerProcessingBase<ISearchRunReplies> {
 		@Override
-		public ISearchRunReplies doInBackground() {
+		protected ISearchRunReplies buildSearchRun() {
 			try {
 				SearchRunRepliesBuilder builder = new SearchRunRepliesBuilder( bundle,
 												storage,
 												prefsFactory,
 												prefs,
 												webDriverFactory,
+												webDriverSessionManager,
 												searchRunFactory,
 												snapshotFactory,
 												tweetFactory,
@@ -149,13 +158,14 @@ public class AppGUI implements RunEventListener, PreferencesEventListener, Windo
 
 	class TimelineWorker extends WorkerProcessingBase<ISearchRunTimeline> {
 		@Override
-		public ISearchRunTimeline doInBackground() {
+		protected ISearchRunTimeline buildSearchRun() {
 			try {
 				SearchRunTimelineBuilder builder = new SearchRunTimelineBuilder( bundle,
 																					storage,
 																					prefsFactory,
 																					prefs,
 																					webDriverFactory,
+																					webDriverSessionManager,
 																					searchRunFactory,
 																					snapshotFactory,
 																					tweetFactory,
@@ -220,6 +230,7 @@ public class AppGUI implements RunEventListener, PreferencesEventListener, Windo
 					IPreferencesFactory prefsFactory,
 					IPreferences prefs,
 					IWebDriverFactory webDriverFactory,
+					WebDriverSessionManager webDriverSessionManager,
 					ISearchRunFactory searchRunFactory,
 					ISnapshotFactory snapshotFactory,
 					ITweetFactory tweetFactory,
@@ -231,12 +242,13 @@ public class AppGUI implements RunEventListener, PreferencesEventListener, Windo
 		this.prefsFactory = prefsFactory;
 		this.prefs = prefs;
 		this.webDriverFactory = webDriverFactory;
+		this.webDriverSessionManager = webDriverSessionManager;
 		this.searchRunFactory = searchRunFactory;
 		this.snapshotFactory = snapshotFactory;
 		this.tweetFactory = tweetFactory;
 		this.analysisReportFactory = analysisReportFactory;
 		this.appDirectories = appDirectories;
-		this.searchRunProcessors = searchRunProcessors;
+		this.searchRunProcessorPipeline = new SearchRunProcessorPipeline( bundle, searchRunProcessors );
 	}
 
 	public void run() throws Exception {
@@ -310,6 +322,8 @@ public class AppGUI implements RunEventListener, PreferencesEventListener, Windo
 	public void windowClosingEventFired( WindowClosingEvent windowClosingEvent ) {
 		windowClosingEvent.getWindow().dispose();
 
+		webDriverSessionManager.shutdown();
+
 		logger.info( "DONE" );
 		System.exit( 0 );
 	}
@@ -367,6 +381,9 @@ public class AppGUI implements RunEventListener, PreferencesEventListener, Windo
 		guiElements.add( new ElementDescriptor( "textfield", "prefs.num_individual_pages_to_check",
 													bundle.getString( "prefs_element_num_individual_pages_to_check_name" ),
 													bundle.getString( "prefs_element_num_individual_pages_to_check_help" ), 30 ) );
+		guiElements.add( new ElementDescriptor( "textfield", "prefs.num_browsers",
+													bundle.getString( "prefs_element_num_browsers_name" ),
+													bundle.getString( "prefs_element_num_browsers_help" ), 30 ) );
 		guiElements.add( new ElementDescriptor( "checkbox", "prefs.upload_results",
 													bundle.getString( "prefs_element_upload_results_name" ),
 													bundle.getString( "prefs_element_upload_results_help" ), 30 ) );
@@ -382,6 +399,18 @@ public class AppGUI implements RunEventListener, PreferencesEventListener, Windo
 		guiElements.add( new ElementDescriptor( "textfield", "prefs.firefox_path_profile",
 													bundle.getString( "prefs_element_firefox_path_profile_name" ),
 													bundle.getString( "prefs_element_firefox_path_profile_help" ), 30 ) );
+		guiElements.add( new ElementDescriptor( "checkbox", "prefs.scraping_profile",
+													bundle.getString( "prefs_element_scraping_profile_name" ),
+													bundle.getString( "prefs_element_scraping_profile_help" ), 30 ) );
+		guiElements.add( new ElementDescriptor( "checkbox", "prefs.incremental_runs",
+													bundle.getString( "prefs_element_incremental_runs_name" ),
+													bundle.getString( "prefs_element_incremental_runs_help" ), 30 ) );
+		guiElements.add( new ElementDescriptor( "textfield", "prefs.incremental_full_run_days",
+													bundle.getString( "prefs_element_incremental_full_run_days_name" ),
+													bundle.getString( "prefs_element_incremental_full_run_days_help" ), 30 ) );
+		guiElements.add( new ElementDescriptor( "checkbox", "prefs.stop_at_user_reply",
+													bundle.getString( "prefs_element_stop_at_user_reply_name" ),
+													bundle.getString( "prefs_element_stop_at_user_reply_help" ), 30 ) );
 	}
 }
 
@@ -0,0 +1,225 @@
+/*
+ * Copyright 2018 Chris Kelly
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.tolstoy.censorship.twitter.checker.app;
+
+import java.util.*;
+import java.util.concurrent.*;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import com.tolstoy.basic.api.storage.*;
+import com.tolstoy.basic.api.tweet.*;
+import com.tolstoy.basic.api.utils.*;
+import com.tolstoy.basic.api.statusmessage.*;
+import com.tolstoy.basic.app.utils.Utils;
+import com.tolstoy.censorship.twitter.checker.api.preferences.*;
+import com.tolstoy.censorship.twitter.checker.api.webdriver.*;
+import com.tolstoy.censorship.twitter.checker.api.snapshot.*;
+import com.tolstoy.censorship.twitter.checker.api.searchrun.*;
+import com.tolstoy.censorship.twitter.checker.app.helpers.SearchRunRepliesBuilder;
+import com.tolstoy.censorship.twitter.checker.app.helpers.SearchRunTimelineBuilder;
+import com.tolstoy.censorship.twitter.checker.app.helpers.WebDriverSessionManager;
+import com.tolstoy.censorship.twitter.checker.app.helpers.SearchRunProcessorPipeline;
+
+/**
+ * Runs the replies and/or timeline checks for a list of handles without
+ * the GUI, several handles at a time. The same settings as the GUI are
+ * used except for prefs.handle_to_check.
+ *
+ * Each handle that's being checked uses up to prefs.num_browsers browsers,
+ * so at most numThreads * prefs.num_browsers are open at once. Each
+ * handle's search run goes through the search run processors on that
+ * handle's thread, so several search runs can be processed at the same
+ * time; see SearchRunProcessorPipeline for how the processors for one
+ * search run are ordered.
+ */
+public class BatchRunner {
+	private static final Logger logger = LogManager.getLogger( BatchRunner.class );
+
+	public static final String MODE_REPLIES = "replies";
+	public static final String MODE_TIMELINE = "timeline";
+	public static final String MODE_BOTH = "both";
+
+	private IResourceBundleWithFormatting bundle;
+	private IStorage storage;
+	private IPreferencesFactory prefsFactory;
+	private IPreferences prefs;
+	private IWebDriverFactory webDriverFactory;
+	private WebDriverSessionManager webDriverSessionManager;
+	private ISearchRunFactory searchRunFactory;
+	private ISnapshotFactory snapshotFactory;
+	private ITweetFactory tweetFactory;
+	private SearchRunProcessorPipeline searchRunProcessorPipeline;
+
+	class HandleStatusMessageReceiver implements IStatusMessageReceiver {
+		private String handle;
+
+		HandleStatusMessageReceiver( String handle ) {
+			this.handle = handle;
+		}
+
+		@Override
+		public void addMessage( StatusMessage message ) {
+			if ( message.getSeverity() == StatusMessageSeverity.INFO ) {
+				logger.info( "@" + handle + ": " + message.getMessage() );
+			}
+			else {
+				logger.warn( "@" + handle + ": " + message.getMessage() );
+			}
+		}
+
+		@Override
+		public void clearMessages() {
+		}
+	}
+
+	public BatchRunner( IResourceBundleWithFormatting bundle,
+						IStorage storage,
+						IPreferencesFactory prefsFactory,
+						IPreferences prefs,
+						IWebDriverFactory webDriverFactory,
+						WebDriverSessionManager webDriverSessionManager,
+						ISearchRunFactory searchRunFactory,
+						ISnapshotFactory snapshotFactory,
+						ITweetFactory tweetFactory,
+						List<ISearchRunProcessor> searchRunProcessors ) {
+		this.bundle = bundle;
+		this.storage = storage;
+		this.prefsFactory = prefsFactory;
+		this.prefs = prefs;
+		this.webDriverFactory = webDriverFactory;
+		this.webDriverSessionManager = webDriverSessionManager;
+		this.searchRunFactory = searchRunFactory;
+		this.snapshotFactory = snapshotFactory;
+		this.tweetFactory = tweetFactory;
+		this.searchRunProcessorPipeline = new SearchRunProcessorPipeline( bundle, searchRunProcessors );
+	}
+
+	/**
+	 * @param mode one of the MODE_ values
+	 * @return the handles that couldn't be checked
+	 */
+	public List<String> run( List<String> handles, final String mode, int numThreads ) throws Exception {
+		List<String> failed = new ArrayList<String>();
+
+		if ( !MODE_REPLIES.equals( mode ) && !MODE_TIMELINE.equals( mode ) && !MODE_BOTH.equals( mode ) ) {
+			throw new IllegalArgumentException( bundle.getString( "batch_bad_mode", mode ) );
+		}
+
+		numThreads = Math.max( 1, Math.min( numThreads, handles.size() ) );
+
+		int numBrowsers = Math.max( 1, Utils.parseIntDefault( prefs.getValue( "prefs.num_browsers" ), 1 ) );
+		webDriverSessionManager.setMaxIdleSessions( numThreads * numBrowsers );
+
+		logger.info( bundle.getString( "batch_start", handles.size(), mode, numThreads ) );
+
+		ExecutorService executor = Executors.newFixedThreadPool( numThreads );
+
+		try {
+			List<Future<Boolean>> futures = new ArrayList<Future<Boolean>>( handles.size() );
+
+			for ( final String handle : handles ) {
+				futures.add( executor.submit( new Callable<Boolean>() {
+					@Override
+					public Boolean call() throws Exception {
+						return checkHandle( handle, mode );
+					}
+				}));
+			}
+
+			for ( int i = 0; i < handles.size(); i++ ) {
+				boolean ok = false;
+
+				try {
+					ok = futures.get( i ).get();
+				}
+				catch ( ExecutionException e ) {
+					logger.error( "@" + handles.get( i ), e.getCause() );
+				}
+
+				if ( !ok ) {
+					failed.add( handles.get( i ) );
+				}
+			}
+		}
+		finally {
+			executor.shutdownNow();
+		}
+
+		logger.info( bundle.getString( "batch_done", handles.size() - failed.size(), handles.size(), failed ) );
+
+		return failed;
+	}
+
+	protected boolean checkHandle( String handle, String mode ) {
+		IStatusMessageReceiver statusMessageReceiver = new HandleStatusMessageReceiver( handle );
+
+		int numTimelinePagesToCheck = Utils.parseIntDefault( prefs.getValue( "prefs.num_timeline_pages_to_check" ), 1 );
+		int numIndividualPagesToCheck = Utils.parseIntDefault( prefs.getValue( "prefs.num_individual_pages_to_check" ), 3 );
+		int maxTweets = Utils.parseIntDefault( prefs.getValue( "prefs.num_tweets_to_check" ), 5 );
+
+		boolean ok = true;
+
+		if ( MODE_REPLIES.equals( mode ) || MODE_BOTH.equals( mode ) ) {
+			try {
+				SearchRunRepliesBuilder builder = new SearchRunRepliesBuilder( bundle,
+																				storage,
+																				prefsFactory,
+																				prefs,
+																				webDriverFactory,
+																				webDriverSessionManager,
+																				searchRunFactory,
+																				snapshotFactory,
+																				tweetFactory,
+																				statusMessageReceiver,
+																				handle );
+
+				process( builder.buildSearchRunReplies( numTimelinePagesToCheck, numIndividualPagesToCheck, maxTweets ),
+							statusMessageReceiver );
+			}
+			catch ( Exception e ) {
+				logger.error( "@" + handle + ": " + bundle.getString( "exc_start", e.getMessage() ), e );
+				ok = false;
+			}
+		}
+
+		if ( MODE_TIMELINE.equals( mode ) || MODE_BOTH.equals( mode ) ) {
+			try {
+				SearchRunTimelineBuilder builder = new SearchRunTimelineBuilder( bundle,
+																					storage,
+																					prefsFactory,
+																					prefs,
+																					webDriverFactory,
+																					webDriverSessionManager,
+																					searchRunFactory,
+																					snapshotFactory,
+																					tweetFactory,
+																					statusMessageReceiver,
+																					handle );
+
+				process( builder.buildSearchRunTimeline( numTimelinePagesToCheck, numIndividualPagesToCheck, maxTweets ),
+							statusMessageReceiver );
+			}
+			catch ( Exception e ) {
+				logger.error( "@" + handle + ": " + bundle.getString( "exc_start", e.getMessage() ), e );
+				ok = false;
+			}
+		}
+
+		return ok;
+	}
+
+	protected void process( ISearchRun searchRun, IStatusMessageReceiver statusMessageReceiver ) throws Exception {
+		searchRunProcessorPipeline.process( searchRun, statusMessageReceiver );
+	}
+}
@@ -20,33 +20,44 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import javax.swing.JFrame;
 import javax.swing.JDialog;
 import javax.swing.JOptionPane;
 import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
 import java.time.Instant;
+import java.time.temporal.ChronoUnit;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.scijava.util.ClassUtils;
 import org.scijava.util.FileUtils;
-import com.tolstoy.basic.api.storage.IStorage;
+import com.tolstoy.basic.api.storage.IWriteBehindStorage;
 import com.tolstoy.basic.api.tweet.ITweetFactory;
+import com.tolstoy.basic.api.tweet.TweetAttributeRetention;
+import com.tolstoy.basic.api.tweet.TweetAttributeRetentionPolicy;
 import com.tolstoy.basic.api.utils.*;
 import com.tolstoy.basic.app.utils.*;
 import com.tolstoy.basic.app.tweet.TweetFactory;
 import com.tolstoy.basic.app.storage.StorageEmbeddedDerby;
+import com.tolstoy.basic.app.storage.StorageWriteBehind;
 import com.tolstoy.censorship.twitter.checker.api.preferences.IPreferencesFactory;
 import com.tolstoy.censorship.twitter.checker.api.preferences.IPreferences;
 import com.tolstoy.censorship.twitter.checker.api.webdriver.IWebDriverFactory;
 import com.tolstoy.censorship.twitter.checker.api.snapshot.ISnapshotFactory;
 import com.tolstoy.censorship.twitter.checker.api.searchrun.ISearchRunFactory;
 import com.tolstoy.censorship.twitter.checker.api.searchrun.ISearchRunProcessor;
+import com.tolstoy.censorship.twitter.checker.api.searchrun.ISearchRunIndex;
 import com.tolstoy.censorship.twitter.checker.api.analyzer.*;
 import com.tolstoy.censorship.twitter.checker.app.preferences.PreferencesFactory;
 import com.tolstoy.censorship.twitter.checker.app.webdriver.WebDriverFactoryJS;
 import com.tolstoy.censorship.twitter.checker.app.snapshot.SnapshotFactory;
 import com.tolstoy.censorship.twitter.checker.app.analyzer.AnalysisReportFactory;
+import com.tolstoy.censorship.twitter.checker.app.storage.SearchRunIndexEmbeddedDerby;
+import com.tolstoy.censorship.twitter.checker.app.storage.TweetAttributeStoreEmbeddedDerby;
 import com.tolstoy.censorship.twitter.checker.app.searchrun.*;
 import com.tolstoy.censorship.twitter.checker.app.gui.*;
 import com.tolstoy.censorship.twitter.checker.app.helpers.*;
@@ -58,26 +69,41 @@ public final class Start {
 		//	and the reports will be deleted when you do a 'mvn clean'
 	private static final int DIRECTORIES_LEVEL_UP = 1;
 
-	private static final String[] TABLE_NAMES = { "searchrun", "preferences" };
+	private static final String[] TABLE_NAMES = { "searchrun", "preferences", "websession", "checkpoint" };
+
+		//	search runs are written in the background, at most this many waiting
+	private static final int MAX_QUEUED_WRITES = 4;
+
+		//	offloaded tweet attributes are deleted after this long
+	private static final int MAX_TWEET_ATTRIBUTES_AGE_DAYS = 30;
 
 	private static final String[] PREFERENCES_OVERRIDEABLE_BY_SYSTEM_PROPERTIES = { "prefs.firefox_path_app", "prefs.firefox_path_profile" };
 
 	private static final boolean DEBUG_MODE = true;
 
+	private static final String[] BATCH_OPTIONS = { "--handles", "--handles-file", "--mode", "--threads", "--processors" };
+
 	private IResourceBundleWithFormatting bundle = null;
+	private Map<String,String> batchOptions;
+
+	private Start( Map<String,String> batchOptions ) {
+		this.batchOptions = batchOptions;
 
-	private Start() {
 		Properties props = null;
 		Map<String,String> defaultAppPrefs = null;
-		IStorage storage = null;
+		IWriteBehindStorage storage = null;
+		ISearchRunIndex searchRunIndex = null;
+		TweetAttributeStoreEmbeddedDerby tweetAttributeStore = null;
 		IPreferencesFactory prefsFactory = null;
 		IPreferences prefs = null;
 		IWebDriverFactory webDriverFactory = null;
+		WebDriverSessionManager webDriverSessionManager = null;
 		ISearchRunFactory searchRunFactory = null;
 		ISnapshotFactory snapshotFactory = null;
 		ITweetFactory tweetFactory = null;
 		IAnalysisReportFactory analysisReportFactory = null;
 		List<ISearchRunProcessor> searchRunProcessors = null;
+		Map<String,ISearchRunProcessor> searchRunProcessorsByName = null;
 		IAppDirectories appDirectories = null;
 		String databaseConnectionString = null;
 
@@ -117,10 +143,32 @@ public final class Start {
 		}
 
 		try {
-			storage = new StorageEmbeddedDerby( databaseConnectionString, Arrays.asList( TABLE_NAMES ) );
+			storage = new StorageWriteBehind( new StorageEmbeddedDerby( databaseConnectionString, Arrays.asList( TABLE_NAMES ) ),
+												MAX_QUEUED_WRITES );
 
 			storage.connect();
 			storage.ensureTables();
+
+				//	both the GUI and batch mode end with System.exit()
+			final IWriteBehindStorage storageToFlush = storage;
+			Runtime.getRuntime().addShutdownHook( new Thread( new Runnable() {
+				@Override
+				public void run() {
+					storageToFlush.shutdown();
+				}
+			}, "storage-shutdown" ) );
+
+			searchRunIndex = new SearchRunIndexEmbeddedDerby( databaseConnectionString );
+
+			searchRunIndex.connect();
+			searchRunIndex.ensureTables();
+
+			tweetAttributeStore = new TweetAttributeStoreEmbeddedDerby( databaseConnectionString );
+
+			tweetAttributeStore.connect();
+			tweetAttributeStore.ensureTables();
+
+			purgeTweetAttributes( tweetAttributeStore );
 		}
 		catch ( Exception e ) {
 			handleError( true, bundle.getString( "exc_db_init", databaseConnectionString ), e );
@@ -165,27 +213,62 @@ public final class Start {
 		}
 
 		try {
-			searchRunProcessors = new ArrayList<ISearchRunProcessor>( 2 );
+				//	the names are used by the --processors option
+			searchRunProcessorsByName = new LinkedHashMap<String,ISearchRunProcessor>();
+
+			searchRunProcessorsByName.put( "storage", new SearchRunProcessorInsertNewToStorage( bundle, prefs, storage, searchRunIndex ) );
 
-			searchRunProcessors.add( new SearchRunProcessorInsertNewToStorage( bundle, prefs, storage ) );
+			searchRunProcessorsByName.put( "upload", new SearchRunProcessorUploadDataJson( bundle, prefs ) );
 
-			searchRunProcessors.add( new SearchRunProcessorUploadDataJson( bundle, prefs ) );
+			searchRunProcessorsByName.put( "report", new SearchRunProcessorWriteReport( bundle, prefs, appDirectories, analysisReportFactory, DEBUG_MODE ) );
 
-			searchRunProcessors.add( new SearchRunProcessorWriteReport( bundle, prefs, appDirectories, analysisReportFactory, DEBUG_MODE ) );
+			searchRunProcessors = new ArrayList<ISearchRunProcessor>( searchRunProcessorsByName.values() );
 		}
 		catch ( Exception e ) {
 			handleError( false, bundle.getString( "exc_searchrunprocessors_init" ), e );
 		}
 
 		try {
-			webDriverFactory = new WebDriverFactoryJS( snapshotFactory, tweetFactory, prefs, bundle );
+			webDriverFactory = new WebDriverFactoryJS( snapshotFactory, tweetFactory, prefs, bundle,
+														makeAttributeRetentionPolicy( prefs, tweetAttributeStore ) );
 		}
 		catch ( Exception e ) {
 			handleError( false, bundle.getString( "exc_webdriver_init" ), e );
 		}
 
-		if ( false ) {
-			//	possible command line version
+		webDriverSessionManager = new WebDriverSessionManager( bundle, prefs, storage, webDriverFactory );
+
+		if ( batchOptions != null ) {
+			int exitCode = 0;
+
+			try {
+				BatchRunner batchRunner = new BatchRunner( bundle,
+															storage,
+															prefsFactory,
+															prefs,
+															webDriverFactory,
+															webDriverSessionManager,
+															searchRunFactory,
+															snapshotFactory,
+															tweetFactory,
+															getBatchProcessors( searchRunProcessorsByName ) );
+
+				List<String> failed = batchRunner.run( getBatchHandles(),
+														Utils.trimDefault( batchOptions.get( "--mode" ), BatchRunner.MODE_REPLIES ),
+														Utils.parseIntDefault( batchOptions.get( "--threads" ), 1 ) );
+
+				exitCode = failed.isEmpty() ? 0 : 1;
+			}
+			catch ( Exception e ) {
+				handleError( false, bundle.getString( "exc_start", e.getMessage() ), e );
+				System.err.println( bundle.getString( "batch_usage" ) );
+				exitCode = -1;
+			}
+			finally {
+				webDriverSessionManager.shutdown();
+			}
+
+			System.exit( exitCode );
 		}
 		else {
 			try {
@@ -194,6 +277,7 @@ public final class Start {
 											prefsFactory,
 											prefs,
 											webDriverFactory,
+											webDriverSessionManager,
 											searchRunFactory,
 											snapshotFactory,
 											tweetFactory,
@@ -208,6 +292,91 @@ public final class Start {
 		}
 	}
 
+	private List<String> getBatchHandles() throws Exception {
+		List<String> lines = new ArrayList<String>();
+
+		if ( batchOptions.get( "--handles" ) != null ) {
+			lines.addAll( Arrays.asList( batchOptions.get( "--handles" ).split( "," ) ) );
+		}
+
+		if ( batchOptions.get( "--handles-file" ) != null ) {
+			lines.addAll( Files.readAllLines( Paths.get( batchOptions.get( "--handles-file" ) ), StandardCharsets.UTF_8 ) );
+		}
+
+		List<String> ret = new ArrayList<String>();
+
+		for ( String line : lines ) {
+			line = Utils.trimDefault( line );
+			if ( line.startsWith( "#" ) ) {
+				continue;
+			}
+
+			String handle = Utils.extractHandle( line.startsWith( "@" ) ? line.substring( 1 ) : line );
+			if ( !Utils.isEmpty( handle ) && !ret.contains( handle ) ) {
+				ret.add( handle );
+			}
+		}
+
+		if ( ret.isEmpty() ) {
+			throw new IllegalArgumentException( bundle.getString( "batch_no_handles" ) );
+		}
+
+		return ret;
+	}
+
+	private TweetAttributeRetentionPolicy makeAttributeRetentionPolicy( IPreferences prefs, TweetAttributeStoreEmbeddedDerby tweetAttributeStore ) {
+		TweetAttributeRetention retention = TweetAttributeRetention.getMatching( prefs.getValue( "tweets.attribute_retention" ) );
+
+		List<String> names = new StringList( prefs.getValue( "tweets.attribute_retention.names" ) ).getItems();
+		if ( names.isEmpty() ) {
+			names = TweetAttributeRetentionPolicy.DEFAULT_ATTRIBUTE_NAMES;
+		}
+
+			//	nothing reads offloaded attributes back yet, so they'd only be
+			//	lost from the stored and uploaded runs
+		if ( retention == TweetAttributeRetention.OFFLOAD ) {
+			logger.warn( "tweets.attribute_retention=offload isn't supported yet, keeping tweet attributes" );
+			retention = TweetAttributeRetention.KEEP;
+		}
+
+		logger.info( "tweet attribute retention: " + retention.getKey() + " " + names );
+
+		return new TweetAttributeRetentionPolicy( retention, names, tweetAttributeStore );
+	}
+
+	private void purgeTweetAttributes( TweetAttributeStoreEmbeddedDerby tweetAttributeStore ) {
+		try {
+			tweetAttributeStore.deleteAttributesModifiedBefore( Instant.now().minus( MAX_TWEET_ATTRIBUTES_AGE_DAYS, ChronoUnit.DAYS ) );
+		}
+		catch ( Exception e ) {
+			logger.error( "cannot delete old tweet attributes", e );
+		}
+	}
+
+	private List<ISearchRunProcessor> getBatchProcessors( Map<String,ISearchRunProcessor> searchRunProcessorsByName ) {
+		if ( batchOptions.get( "--processors" ) == null ) {
+			return new ArrayList<ISearchRunProcessor>( searchRunProcessorsByName.values() );
+		}
+
+		List<ISearchRunProcessor> ret = new ArrayList<ISearchRunProcessor>();
+
+		for ( String name : batchOptions.get( "--processors" ).split( "," ) ) {
+			name = Utils.trimDefault( name ).toLowerCase();
+			if ( Utils.isEmpty( name ) ) {
+				continue;
+			}
+
+			ISearchRunProcessor processor = searchRunProcessorsByName.get( name );
+			if ( processor == null ) {
+				throw new IllegalArgumentException( bundle.getString( "batch_bad_processor", name ) );
+			}
+
+			ret.add( processor );
+		}
+
+		return ret;
+	}
+
 	private void handleError( boolean closeOnExit, String msg, Exception e ) {
 		logger.error( msg, e );
 		showErrorMessage( closeOnExit, msg );
@@ -221,6 +390,15 @@ public final class Start {
 	private void showErrorMessage( final boolean closeOnExit, String msg ) {
 		String dialogTitle;
 
+		if ( batchOptions != null ) {
+				//	no windows in batch mode
+			System.err.println( msg );
+			if ( closeOnExit ) {
+				System.exit( -1 );
+			}
+			return;
+		}
+
 		if ( bundle != null ) {
 			msg += bundle.getString( "notice_logfile" );
 			dialogTitle = bundle.getString( "notice_title" );
@@ -250,7 +428,36 @@ public final class Start {
 	}
 
 	public static void main(String[] args) {
-		new Start();
+		Map<String,String> batchOptions = parseBatchOptions( args );
+
+		if ( batchOptions != null ) {
+			System.setProperty( "java.awt.headless", "true" );
+		}
+
+		new Start( batchOptions );
+	}
+
+	/**
+	 * @return the batch options, or null if the GUI should be used
+	 */
+	private static Map<String,String> parseBatchOptions( String[] args ) {
+		Map<String,String> ret = new HashMap<String,String>();
+
+		List<String> known = Arrays.asList( BATCH_OPTIONS );
+
+		for ( int i = 0; i < args.length; i++ ) {
+				//	anything else is ignored, like the args that the exec plugin passes
+			if ( known.contains( args[ i ] ) && i + 1 < args.length ) {
+				ret.put( args[ i ], args[ i + 1 ] );
+				i++;
+			}
+		}
+
+		if ( ret.get( "--handles" ) == null && ret.get( "--handles-file" ) == null ) {
+			return null;
+		}
+
+		return ret;
 	}
 }
 
@@ -19,6 +19,10 @@ import java.util.Map;
 import java.util.HashMap;
 import java.util.Set;
 import java.util.Collections;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
 import java.time.Instant;
 import java.time.format.DateTimeFormatter;
 import java.time.ZoneId;
@@ -43,6 +47,36 @@ import com.tolstoy.censorship.twitter.checker.api.snapshot.ReplyThreadType;
 class AnalysisReportBasicBase {
 	private static final Logger logger = LogManager.getLogger( AnalysisReportBasicBase.class );
 
+		//	analysis is CPU-bound, so the pool has one thread per core and is
+		//	shared by all reports. Its threads are daemons.
+	private static final ForkJoinPool analysisPool = new ForkJoinPool( Runtime.getRuntime().availableProcessors() );
+
+	/**
+	 * Runs one job, keeping its result or exception so they can be
+	 * collected in job order afterwards.
+	 */
+	private static class AnalysisTask<T> extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+
+		private final Callable<T> job;
+		private T result;
+		private Exception exception;
+
+		AnalysisTask( Callable<T> job ) {
+			this.job = job;
+		}
+
+		@Override
+		protected void compute() {
+			try {
+				result = job.call();
+			}
+			catch ( Exception e ) {
+				exception = e;
+			}
+		}
+	}
+
 	private final IAnalysisReportFactory analysisReportFactory;
 	private final ITweetFactory tweetFactory;
 	private final IPreferences prefs;
@@ -78,6 +112,43 @@ class AnalysisReportBasicBase {
 		return nameDateFormatter;
 	}
 
+	/**
+	 * Run the jobs in parallel on the analysis pool. Jobs can call this
+	 * again to split their own work up further.
+	 * @return the results, in the same order as the jobs
+	 * @throws Exception the exception thrown by the first job that failed, in job order
+	 */
+	protected <T> List<T> invokeAll( List<Callable<T>> jobs ) throws Exception {
+		final List<AnalysisTask<T>> tasks = new ArrayList<AnalysisTask<T>>( jobs.size() );
+		for ( Callable<T> job : jobs ) {
+			tasks.add( new AnalysisTask<T>( job ) );
+		}
+
+		if ( ForkJoinTask.getPool() == analysisPool ) {
+			ForkJoinTask.invokeAll( tasks );
+		}
+		else {
+			analysisPool.invoke( new RecursiveAction() {
+				@Override
+				protected void compute() {
+					ForkJoinTask.invokeAll( tasks );
+				}
+			});
+		}
+
+		List<T> ret = new ArrayList<T>( tasks.size() );
+
+		for ( AnalysisTask<T> task : tasks ) {
+			if ( task.exception != null ) {
+				throw task.exception;
+			}
+
+			ret.add( task.result );
+		}
+
+		return ret;
+	}
+
 	protected int getTweetOrder( List<ITweet> tweets, long tweetID ) {
 		int order = 1;
 		for ( ITweet tweet : tweets ) {
@@ -101,12 +172,11 @@ class AnalysisReportBasicBase {
 	}
 
 	protected int countNewerTweets( ITweet testTweet, List<ITweet> tweets ) {
-		int time = Utils.parseIntDefault( testTweet.getAttribute( "time" ) );
+		long time = testTweet.getTime();
 		int count = 0;
 
 		for ( ITweet tweet : tweets ) {
-			int tempTime = Utils.parseIntDefault( tweet.getAttribute( "time" ) );
-			if ( tempTime > time ) {
+			if ( tweet.getTime() > time ) {
 				count++;
 			}
 		}
@@ -19,6 +19,7 @@ import java.util.Map;
 import java.util.HashMap;
 import java.util.Set;
 import java.util.Collections;
+import java.util.concurrent.Callable;
 import java.time.Instant;
 import java.time.format.DateTimeFormatter;
 import java.time.ZoneId;
@@ -69,17 +70,26 @@ class AnalysisReportRepliesBasic extends AnalysisReportBasicBase implements IAna
 
 		Set<Long> sourceTweetIDs = searchRun.getSourceTweetIDs();
 
+		List<Callable<IAnalysisReportRepliesItemBasic>> jobs = new ArrayList<Callable<IAnalysisReportRepliesItemBasic>>( sourceTweetIDs.size() );
+
 		for ( Long sourceTweetID : sourceTweetIDs ) {
-			ITweet sourceTweet = tweetColTimeline.getTweetByID( sourceTweetID );
-			IReplyThread replyThread = searchRun.getReplyThreadBySourceTweetID( sourceTweetID );
+			final ITweet sourceTweet = tweetColTimeline.getTweetByID( sourceTweetID );
+			final IReplyThread replyThread = searchRun.getReplyThreadBySourceTweetID( sourceTweetID );
 
 			//logger.info( "sourceTweet=" + sourceTweet.getSummary() );
 			//logger.info( "replyThread=" + replyThread );
 
 			if ( sourceTweet != null && replyThread != null ) {
-				reportItems.add( createReportItem( sourceTweet, replyThread ) );
+				jobs.add( new Callable<IAnalysisReportRepliesItemBasic>() {
+					@Override
+					public IAnalysisReportRepliesItemBasic call() {
+						return createReportItem( sourceTweet, replyThread );
+					}
+				});
 			}
 		}
+
+		reportItems.addAll( invokeAll( jobs ) );
 	}
 
 	protected IAnalysisReportRepliesItemBasic createReportItem( ITweet sourceTweet, IReplyThread replyThread ) {
@@ -110,6 +120,7 @@ class AnalysisReportRepliesBasic extends AnalysisReportBasicBase implements IAna
 		ret.setAttribute( "numNewerTweets", "" + numNewerTweets );
 		ret.setAttribute( "percentNewerTweets", "" + percentNewerTweets );
 		ret.setAttribute( "percentComplete", "" + percentComplete );
+		ret.setAttribute( "stoppedEarly", "" + replyPage.getStoppedEarly() );
 
 		ITweet foundSourceTweet = replyPage.getTweetCollection().getTweetByID( sourceTweet.getID() );
 
@@ -156,6 +167,12 @@ class AnalysisReportRepliesBasic extends AnalysisReportBasicBase implements IAna
 				//	better than 50% of similar tweets
 			ret.setTweetStatus( AnalysisReportItemBasicTweetStatus.VISIBLE_BETTER );
 		}
+		else if ( replyPage.getStoppedEarly() ) {
+				//	the tweets below the reply weren't loaded. They can only push the
+				//	expected orders down, so the comparisons above are lower bounds:
+				//	enough to say better, not enough to say normal or worse
+			ret.setTweetStatus( AnalysisReportItemBasicTweetStatus.UNKNOWN );
+		}
 		else if ( percentComparedToInteractionOrder >= 0 && percentComparedToDateOrder >= 0 ) {
 				//	better than 0% to 50% of similar tweets
 			ret.setTweetStatus( AnalysisReportItemBasicTweetStatus.VISIBLE_NORMAL );
@@ -176,7 +193,12 @@ class AnalysisReportRepliesBasic extends AnalysisReportBasicBase implements IAna
 
 	protected AnalysisReportItemBasicTweetStatus getTweetNotFoundStatus( ITweet sourceTweet, int percentNewerTweets, int percentComplete,
 																			ISnapshotUserPageIndividualTweet replyPage ) {
-		if ( replyPage.getComplete() ) {
+		if ( replyPage.getStoppedEarly() ) {
+				//	scrolling stopped at another of the user's replies, so how much
+				//	of the page was loaded says nothing about this one
+			return AnalysisReportItemBasicTweetStatus.UNKNOWN;
+		}
+		else if ( replyPage.getComplete() ) {
 				//	tweet isn't there and replyPage is complete
 			return AnalysisReportItemBasicTweetStatus.CENSORED_NOTFOUND;
 		}
@@ -20,6 +20,7 @@ import java.util.Map;
 import java.util.HashMap;
 import java.util.Set;
 import java.util.Collections;
+import java.util.concurrent.Callable;
 import java.util.Comparator;
 import java.io.Serializable;
 import java.time.Instant;
@@ -56,10 +57,7 @@ class AnalysisReportTimelineBasic extends AnalysisReportBasicBase implements IAn
 	private static class ReportItemComparator implements Comparator<IAnalysisReportTimelineItemBasic>, Serializable {
 		@Override
 		public int compare( IAnalysisReportTimelineItemBasic a, IAnalysisReportTimelineItemBasic b ) {
-			int dateA = Utils.parseIntDefault( a.getSourceTweet().getAttribute( "time" ) );
-			int dateB = Utils.parseIntDefault( b.getSourceTweet().getAttribute( "time" ) );
-
-			return dateB - dateA;
+			return Long.compare( b.getSourceTweet().getTime(), a.getSourceTweet().getTime() );
 		}
 	}
 
@@ -83,18 +81,27 @@ class AnalysisReportTimelineBasic extends AnalysisReportBasicBase implements IAn
 
 		Set<Long> sourceTweetIDs = searchRun.getSourceTweetIDs();
 
+		List<Callable<IAnalysisReportTimelineItemBasic>> jobs = new ArrayList<Callable<IAnalysisReportTimelineItemBasic>>( sourceTweetIDs.size() );
+
 		for ( Long sourceTweetID : sourceTweetIDs ) {
-			ITweet sourceTweet = tweetColTimeline.getTweetByID( sourceTweetID );
-			ISnapshotUserPageIndividualTweet individualPage = searchRun.getIndividualPageBySourceTweetID( sourceTweetID );
+			final ITweet sourceTweet = tweetColTimeline.getTweetByID( sourceTweetID );
+			final ISnapshotUserPageIndividualTweet individualPage = searchRun.getIndividualPageBySourceTweetID( sourceTweetID );
 
 			//logger.info( "sourceTweet=" + sourceTweet.getSummary() );
 			//logger.info( "individualPage=" + individualPage );
 
 			if ( sourceTweet != null && individualPage != null ) {
-				reportItems.add( createReportItem( sourceTweet, individualPage ) );
+				jobs.add( new Callable<IAnalysisReportTimelineItemBasic>() {
+					@Override
+					public IAnalysisReportTimelineItemBasic call() throws Exception {
+						return createReportItem( sourceTweet, individualPage );
+					}
+				});
 			}
 		}
 
+		reportItems.addAll( invokeAll( jobs ) );
+
 		attributes.put( "rankingFunctionName", tweetRanker.getFunctionName() );
 
 		Collections.sort( reportItems, new ReportItemComparator() );
@@ -107,15 +114,23 @@ class AnalysisReportTimelineBasic extends AnalysisReportBasicBase implements IAn
 		List<ITweet> replyTweets = individualPage.getTweetCollection().getTweets();
 		ret.setAttribute( "_sourcetweets", summarizeTweetList( replyTweets ) );
 
-		IAnalyzedTweet analyzedSourceTweet = getAnalysisReportFactory().makeAnalyzedTweet( sourceTweet, 0, null );
+		final IAnalyzedTweet analyzedSourceTweet = getAnalysisReportFactory().makeAnalyzedTweet( sourceTweet, 0, null );
 
-		List<IAnalyzedTweet> analyzedReplies = new ArrayList<IAnalyzedTweet>();
+		List<Callable<IAnalyzedTweet>> jobs = new ArrayList<Callable<IAnalyzedTweet>>( replyTweets.size() );
 		int order = 1;
-		for ( ITweet tweet : replyTweets ) {
-			analyzedReplies.add( getAnalysisReportFactory().makeAnalyzedTweet( tweet, order, analyzedSourceTweet ) );
+		for ( final ITweet tweet : replyTweets ) {
+			final int replyOrder = order;
+			jobs.add( new Callable<IAnalyzedTweet>() {
+				@Override
+				public IAnalyzedTweet call() {
+					return getAnalysisReportFactory().makeAnalyzedTweet( tweet, replyOrder, analyzedSourceTweet );
+				}
+			});
 			order++;
 		}
 
+		List<IAnalyzedTweet> analyzedReplies = invokeAll( jobs );
+
 		setDateOrders( analyzedReplies );
 
 		tweetRanker.rankTweets( analyzedReplies, analyzedSourceTweet );
@@ -42,16 +42,7 @@ class AnalyzedTweet implements IAnalyzedTweet {
 	private static final Extractor extractor = new Extractor();
 
 	@JsonIgnore
-	private static final CosineDistance comparerCosineDistance = new CosineDistance();
-
-	@JsonIgnore
-	private static final FuzzyScore comparerFuzzyScore = new FuzzyScore( Locale.ENGLISH );
-
-	@JsonIgnore
-	private static final JaccardSimilarity comparerJaccardSimilarity = new JaccardSimilarity();
-
-	@JsonIgnore
-	private static final JaroWinklerDistance comparerJaroWinklerDistance = new JaroWinklerDistance();
+	private static final ReadabilityMeasures readability = new ReadabilityMeasures( "en" );
 
 	@JsonProperty
 	private ITweet tweet;
@@ -152,6 +143,10 @@ class AnalyzedTweet implements IAnalyzedTweet {
 	@JsonProperty
 	private boolean mostlyCaps;
 
+		//	built when this is first used as a reference tweet
+	@JsonIgnore
+	private transient volatile TweetSimilarityReference similarityReference;
+
 	AnalyzedTweet( ITweet tweet, int order, IAnalyzedTweet referenceTweet ) {
 		this.attributes = new HashMap<String,String>();
 
@@ -221,57 +216,53 @@ class AnalyzedTweet implements IAnalyzedTweet {
 		}
 
 		if ( this.numWords > 0 ) {
-			ReadabilityMeasures readability = new ReadabilityMeasures( "en" );
-			this.readabilityFlesch = readability.getReadabilityScore( ReadabilityMeasures.Measures.flesch, words, numSentences );
-			this.readabilityFog = readability.getReadabilityScore( ReadabilityMeasures.Measures.fog, words, numSentences );
-			this.readabilityKincaid = readability.getReadabilityScore( ReadabilityMeasures.Measures.kincaid, words, numSentences );
-			this.readabilityAri = readability.getReadabilityScore( ReadabilityMeasures.Measures.ari, words, numSentences );
-			this.readabilityColemanLiau = readability.getReadabilityScore( ReadabilityMeasures.Measures.coleman_liau, words, numSentences );
-			this.readabilityLix = readability.getReadabilityScore( ReadabilityMeasures.Measures.lix, words, numSentences );
-			this.readabilitySmog = readability.getReadabilityScore( ReadabilityMeasures.Measures.smog, words, numSentences );
+			ReadabilityMeasures.Counts counts = readability.count( words, numSentences );
+			this.readabilityFlesch = readability.getReadabilityScore( ReadabilityMeasures.Measures.flesch, counts );
+			this.readabilityFog = readability.getReadabilityScore( ReadabilityMeasures.Measures.fog, counts );
+			this.readabilityKincaid = readability.getReadabilityScore( ReadabilityMeasures.Measures.kincaid, counts );
+			this.readabilityAri = readability.getReadabilityScore( ReadabilityMeasures.Measures.ari, counts );
+			this.readabilityColemanLiau = readability.getReadabilityScore( ReadabilityMeasures.Measures.coleman_liau, counts );
+			this.readabilityLix = readability.getReadabilityScore( ReadabilityMeasures.Measures.lix, counts );
+			this.readabilitySmog = readability.getReadabilityScore( ReadabilityMeasures.Measures.smog, counts );
 		}
 
 		if ( referenceTweet != null &&
 				wordsWithoutStopWordsLowercase.size() > 0 &&
 				referenceTweet.getWordsWithoutStopWordsLowercase().size() > 0 ) {
-			List<String> temp = new ArrayList<String>( wordsWithoutStopWordsLowercase );
-			Collections.sort( temp );
-			String thisText = StringUtils.join( temp, " " );
-
-			temp = new ArrayList<String>( referenceTweet.getWordsWithoutStopWordsLowercase() );
-			Collections.sort( temp );
-			String referenceText = StringUtils.join( temp, " " );
+			TweetSimilarityReference reference = getSimilarityReference( referenceTweet );
+			String referenceText = reference.getText();
+			String thisText = TweetSimilarityReference.makeText( wordsWithoutStopWordsLowercase );
 
 			try {
-				toReferenceTweetCosineDistance = comparerCosineDistance.apply( referenceText, thisText );
+				toReferenceTweetCosineDistance = reference.cosineDistance( thisText );
 			}
 			catch ( Exception e ) {
 				logger.error( "bad comparerCosineDistance, referenceText=" + referenceText + ", thisText=" + thisText );
 			}
 
 			try {
-				toReferenceTweetJaccardSimilarity = comparerJaccardSimilarity.apply( referenceText, thisText );
+				toReferenceTweetJaccardSimilarity = reference.jaccardSimilarity( thisText );
 			}
 			catch ( Exception e ) {
 				logger.error( "bad comparerJaccardSimilarity, referenceText=" + referenceText + ", thisText=" + thisText );
 			}
 
 			try {
-				toReferenceTweetJaroWinklerDistance = comparerJaroWinklerDistance.apply( referenceText, thisText );
+				toReferenceTweetJaroWinklerDistance = reference.jaroWinklerDistance( thisText );
 			}
 			catch ( Exception e ) {
 				logger.error( "bad comparerJaroWinklerDistance, referenceText=" + referenceText + ", thisText=" + thisText );
 			}
 
 			try {
-				toReferenceTweetFuzzyScore = comparerFuzzyScore.fuzzyScore( referenceText, thisText );
+				toReferenceTweetFuzzyScore = reference.fuzzyScore( thisText );
 			}
 			catch ( Exception e ) {
 				logger.error( "bad comparerFuzzyScore, referenceText=" + referenceText + ", thisText=" + thisText );
 			}
 
 			try {
-				toReferenceTweetLevenshteinDistance = LevenshteinDistance.getDefaultInstance().apply( referenceText, thisText );
+				toReferenceTweetLevenshteinDistance = reference.levenshteinDistance( thisText );
 			}
 			catch ( Exception e ) {
 				logger.error( "bad LevenshteinDistance, referenceText=" + referenceText + ", thisText=" + thisText );
@@ -279,6 +270,31 @@ class AnalyzedTweet implements IAnalyzedTweet {
 		}
 	}
 
+	/**
+	 * Replies to the same reference tweet all use its similarity
+	 * reference, which is only built once.
+	 */
+	protected TweetSimilarityReference getSimilarityReference( IAnalyzedTweet referenceTweet ) {
+		if ( !( referenceTweet instanceof AnalyzedTweet ) ) {
+			return new TweetSimilarityReference( referenceTweet.getWordsWithoutStopWordsLowercase() );
+		}
+
+		AnalyzedTweet reference = (AnalyzedTweet) referenceTweet;
+
+		TweetSimilarityReference ret = reference.similarityReference;
+		if ( ret == null ) {
+			synchronized ( reference ) {
+				ret = reference.similarityReference;
+				if ( ret == null ) {
+					ret = new TweetSimilarityReference( reference.wordsWithoutStopWordsLowercase );
+					reference.similarityReference = ret;
+				}
+			}
+		}
+
+		return ret;
+	}
+
 	protected String getBaseWord( String input ) {
 		if ( input == null || input.length() < 1 ) {
 			return null;
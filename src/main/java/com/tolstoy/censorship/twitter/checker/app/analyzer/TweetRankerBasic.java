@@ -19,7 +19,6 @@ import java.text.DecimalFormat;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import com.tolstoy.basic.api.tweet.ITweet;
-import com.tolstoy.basic.app.utils.Utils;
 import com.tolstoy.censorship.twitter.checker.api.analyzer.ITweetRanker;
 import com.tolstoy.censorship.twitter.checker.api.analyzer.IAnalyzedTweet;
 
@@ -53,12 +52,15 @@ class TweetRankerBasic implements ITweetRanker {
 	private static final double BOOST_FAVORITES = 2.0d;
 	private static final double BOOST_DATE_RATIO = 2.0d;
 
-	private static final DecimalFormat decimalFormat;
-
-	static {
-		decimalFormat = new DecimalFormat( "#.##" );
-		decimalFormat.setRoundingMode( RoundingMode.CEILING );
-	}
+		//	DecimalFormat isn't thread safe, and report items are ranked in parallel
+	private static final ThreadLocal<DecimalFormat> decimalFormat = new ThreadLocal<DecimalFormat>() {
+		@Override
+		protected DecimalFormat initialValue() {
+			DecimalFormat ret = new DecimalFormat( "#.##" );
+			ret.setRoundingMode( RoundingMode.CEILING );
+			return ret;
+		}
+	};
 
 	public TweetRankerBasic() {
 	}
@@ -87,7 +89,7 @@ class TweetRankerBasic implements ITweetRanker {
 				temp = temp * BOOST_FUZZY_OVER_LIMIT;
 			}
 
-			analyzedTweet.setAttribute( "rank_fuzzy", decimalFormat.format( temp ) );
+			analyzedTweet.setAttribute( "rank_fuzzy", decimalFormat.get().format( temp ) );
 			ranking += temp;
 		}
 
@@ -107,71 +109,71 @@ class TweetRankerBasic implements ITweetRanker {
 
 		temp = 200.0d - Math.min( 200.0d, analyzedTweet.getReadabilityFlesch() );
 		temp = temp / FLESCH_DIVISOR;
-		analyzedTweet.setAttribute( "rank_flesch", decimalFormat.format( temp ) );
+		analyzedTweet.setAttribute( "rank_flesch", decimalFormat.get().format( temp ) );
 		ranking += temp;
 
 		temp = analyzedTweet.getReadabilityFog() / FOG_DIVISOR;
-		analyzedTweet.setAttribute( "rank_fog", decimalFormat.format( temp ) );
+		analyzedTweet.setAttribute( "rank_fog", decimalFormat.get().format( temp ) );
 		ranking += temp;
 
 		temp = analyzedTweet.getReadabilityKincaid() / KINCAID_DIVISOR;
-		analyzedTweet.setAttribute( "rank_kincaid", decimalFormat.format( temp ) );
+		analyzedTweet.setAttribute( "rank_kincaid", decimalFormat.get().format( temp ) );
 		ranking += temp;
 
 		temp = analyzedTweet.getReadabilityAri() / ARI_DIVISOR;
-		analyzedTweet.setAttribute( "rank_ari", decimalFormat.format( temp ) );
+		analyzedTweet.setAttribute( "rank_ari", decimalFormat.get().format( temp ) );
 		ranking += temp;
 
 		temp = analyzedTweet.getReadabilityColemanLiau() / COLEMAN_LIAU_DIVISOR;
-		analyzedTweet.setAttribute( "rank_coleman", decimalFormat.format( temp ) );
+		analyzedTweet.setAttribute( "rank_coleman", decimalFormat.get().format( temp ) );
 		ranking += temp;
 
 		temp = analyzedTweet.getReadabilityLix() / LIX_DIVISOR;
-		analyzedTweet.setAttribute( "rank_lix", decimalFormat.format( temp ) );
+		analyzedTweet.setAttribute( "rank_lix", decimalFormat.get().format( temp ) );
 		ranking += temp;
 
 		temp = analyzedTweet.getReadabilitySmog() / SMOG_DIVISOR;
-		analyzedTweet.setAttribute( "rank_smog", decimalFormat.format( temp ) );
+		analyzedTweet.setAttribute( "rank_smog", decimalFormat.get().format( temp ) );
 		ranking += temp;
 
 		if ( analyzedTweet.getToReferenceTweetCosineDistance() > COSINE_MIN_DISTANCE ) {
 			temp = 1.0d - analyzedTweet.getToReferenceTweetCosineDistance();
 			temp = COSINE_MULTIPLIER * temp;
-			analyzedTweet.setAttribute( "rank_cos", decimalFormat.format( temp ) );
+			analyzedTweet.setAttribute( "rank_cos", decimalFormat.get().format( temp ) );
 			ranking += temp;
 		}
 
 		if ( analyzedTweet.getToReferenceTweetJaccardSimilarity() > JACCARD_MIN_DISTANCE ) {
 			temp = analyzedTweet.getToReferenceTweetJaccardSimilarity() / JACCARD_DIVISOR;
-			analyzedTweet.setAttribute( "rank_jac", decimalFormat.format( temp ) );
+			analyzedTweet.setAttribute( "rank_jac", decimalFormat.get().format( temp ) );
 			ranking += temp;
 		}
 
 		if ( analyzedTweet.getToReferenceTweetJaroWinklerDistance() > JARO_WINKLER_MIN_DISTANCE ) {
 			temp = analyzedTweet.getToReferenceTweetJaroWinklerDistance() / JARO_WINKLER_DIVISOR;
-			analyzedTweet.setAttribute( "rank_jrw", decimalFormat.format( temp ) );
+			analyzedTweet.setAttribute( "rank_jrw", decimalFormat.get().format( temp ) );
 			ranking += temp;
 		}
 
 		temp = (double) analyzedTweet.getNumSentences();
-		analyzedTweet.setAttribute( "rank_numsent", decimalFormat.format( temp ) );
+		analyzedTweet.setAttribute( "rank_numsent", decimalFormat.get().format( temp ) );
 		ranking += temp;
 
 		temp = (double) analyzedTweet.getNumWords();
 		temp = temp / NUM_WORDS_DIVISOR;
 		temp = Math.floor( temp );
-		analyzedTweet.setAttribute( "rank_numword", decimalFormat.format( temp ) );
+		analyzedTweet.setAttribute( "rank_numword", decimalFormat.get().format( temp ) );
 		ranking += temp;
 
-		double numReplies = (double) Utils.parseIntDefault( analyzedTweet.getTweet().getAttribute( "replycount" ) );
-		double numRetweets = (double) Utils.parseIntDefault( analyzedTweet.getTweet().getAttribute( "retweetcount" ) );
-		double numFavorites = (double) Utils.parseIntDefault( analyzedTweet.getTweet().getAttribute( "favoritecount" ) );
+		double numReplies = (double) analyzedTweet.getTweet().getReplyCount();
+		double numRetweets = (double) analyzedTweet.getTweet().getRetweetCount();
+		double numFavorites = (double) analyzedTweet.getTweet().getFavoriteCount();
 
 		temp = ( BOOST_REPLIES * numReplies ) + ( BOOST_RETWEETS * numRetweets ) + ( BOOST_FAVORITES * numFavorites );
 
 		if ( temp > 0d ) {
 			temp = Math.log( temp );
-			analyzedTweet.setAttribute( "rank_pop", decimalFormat.format( temp ) );
+			analyzedTweet.setAttribute( "rank_pop", decimalFormat.get().format( temp ) );
 			ranking += temp;
 		}
 
@@ -179,7 +181,7 @@ class TweetRankerBasic implements ITweetRanker {
 		temp = ( ( (double) count - temp + 1.0d ) / (double) count );
 		temp = BOOST_DATE_RATIO * temp;
 
-		analyzedTweet.setAttribute( "rank_time", decimalFormat.format( temp ) );
+		analyzedTweet.setAttribute( "rank_time", decimalFormat.get().format( temp ) );
 		ranking += temp;
 
 		analyzedTweet.setRanking( ranking );
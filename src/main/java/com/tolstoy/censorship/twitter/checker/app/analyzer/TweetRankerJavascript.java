@@ -44,6 +44,7 @@ class TweetRankerJavascript implements ITweetRanker {
 	private IResourceBundleWithFormatting bundle;
 	private String functionName;
 	private String script;
+	private boolean threadSafe;
 
 	public TweetRankerJavascript( ITweetFactory tweetFactory, IAppDirectories appDirectories, IPreferences prefs, IResourceBundleWithFormatting bundle )
 	throws Exception {
@@ -63,6 +64,11 @@ class TweetRankerJavascript implements ITweetRanker {
 		Compilable compilableEngine = (Compilable) engine;
 		compiledScript = compilableEngine.compile( script );
 
+			//	Nashorn returns null for THREADING, meaning scripts can't be
+			//	run from several threads at once. Report items are ranked in
+			//	parallel, so in that case they take turns.
+		threadSafe = engine.getFactory().getParameter( "THREADING" ) != null;
+
 		logger.info( "using the " + functionName + " script as the tweet ranker" );
 	}
 
@@ -119,6 +125,13 @@ class TweetRankerJavascript implements ITweetRanker {
 		bindings.put( "count", count );
 		bindings.put( "referenceAnalyzedTweet", referenceAnalyzedTweet );
 
-		compiledScript.eval( bindings );
+		if ( threadSafe ) {
+			compiledScript.eval( bindings );
+		}
+		else {
+			synchronized ( compiledScript ) {
+				compiledScript.eval( bindings );
+			}
+		}
 	}
 }
@@ -0,0 +1,173 @@
+/*
+ * Copyright 2018 Chris Kelly
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.tolstoy.censorship.twitter.checker.app.analyzer;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.text.similarity.FuzzyScore;
+import org.apache.commons.text.similarity.JaroWinklerDistance;
+import org.apache.commons.text.similarity.LevenshteinDistance;
+
+/**
+ * The reference tweet's side of the similarity measures, built once and
+ * then used to score each reply against it. Immutable, so the replies
+ * can be scored on several threads.
+ *
+ * Texts are the words without stop words, sorted and joined with spaces.
+ * The cosine and Jaccard measures give the same results as the
+ * commons-text CosineDistance and JaccardSimilarity, which would
+ * otherwise re-tokenize the reference text for every reply. Levenshtein
+ * is bounded, see LEVENSHTEIN_THRESHOLD.
+ */
+final class TweetSimilarityReference {
+		//	texts further apart than this are all equally far apart for
+		//	ranking purposes, and the bound makes each comparison
+		//	O(threshold * length) instead of O(length * length)
+	static final int LEVENSHTEIN_THRESHOLD = 64;
+
+		//	the same tokens as commons-text's RegexTokenizer
+	private static final Pattern TOKEN_PATTERN = Pattern.compile( "(\\w)+" );
+
+	private static final FuzzyScore comparerFuzzyScore = new FuzzyScore( Locale.ENGLISH );
+	private static final JaroWinklerDistance comparerJaroWinklerDistance = new JaroWinklerDistance();
+	private static final LevenshteinDistance comparerLevenshteinDistance = new LevenshteinDistance( LEVENSHTEIN_THRESHOLD );
+
+	private final String text;
+	private final Map<String,Integer> termFrequencies;
+	private final double termNorm;
+	private final BitSet chars;
+
+	TweetSimilarityReference( List<String> words ) {
+		this.text = makeText( words );
+		this.termFrequencies = makeTermFrequencies( text );
+		this.termNorm = makeNorm( termFrequencies );
+		this.chars = makeCharSet( text );
+	}
+
+	/**
+	 * @return the words, sorted and joined with spaces
+	 */
+	static String makeText( List<String> words ) {
+		List<String> temp = new ArrayList<String>( words );
+		Collections.sort( temp );
+		return StringUtils.join( temp, " " );
+	}
+
+	String getText() {
+		return text;
+	}
+
+	/**
+	 * Like commons-text 1.2, this throws IllegalArgumentException when
+	 * either text is blank.
+	 */
+	double cosineDistance( String otherText ) {
+		if ( StringUtils.isBlank( text ) || StringUtils.isBlank( otherText ) ) {
+			throw new IllegalArgumentException( "Invalid text" );
+		}
+
+		Map<String,Integer> otherFrequencies = makeTermFrequencies( otherText );
+		double otherNorm = makeNorm( otherFrequencies );
+
+		if ( termNorm <= 0.0 || otherNorm <= 0.0 ) {
+			return 1.0;
+		}
+
+		double dot = 0.0;
+		for ( Map.Entry<String,Integer> entry : otherFrequencies.entrySet() ) {
+			Integer count = termFrequencies.get( entry.getKey() );
+			if ( count != null ) {
+				dot += count.intValue() * entry.getValue().intValue();
+			}
+		}
+
+		return 1.0 - dot / ( Math.sqrt( termNorm ) * Math.sqrt( otherNorm ) );
+	}
+
+	/**
+	 * Like commons-text 1.2, this is the Jaccard similarity of the sets of
+	 * characters in the texts, rounded to two places.
+	 */
+	double jaccardSimilarity( String otherText ) {
+		if ( text.length() == 0 || otherText.length() == 0 ) {
+			return 0.0;
+		}
+
+		BitSet otherChars = makeCharSet( otherText );
+
+		BitSet union = (BitSet) chars.clone();
+		union.or( otherChars );
+
+		otherChars.and( chars );
+
+		return Math.round( ( (double) otherChars.cardinality() / (double) union.cardinality() ) * 100d ) / 100d;
+	}
+
+	double jaroWinklerDistance( String otherText ) {
+		return comparerJaroWinklerDistance.apply( text, otherText );
+	}
+
+	int fuzzyScore( String otherText ) {
+		return comparerFuzzyScore.fuzzyScore( text, otherText );
+	}
+
+	/**
+	 * @return the edit distance, or LEVENSHTEIN_THRESHOLD + 1 if it's more than the threshold
+	 */
+	int levenshteinDistance( String otherText ) {
+		int ret = comparerLevenshteinDistance.apply( text, otherText );
+		return ret >= 0 ? ret : LEVENSHTEIN_THRESHOLD + 1;
+	}
+
+	private static Map<String,Integer> makeTermFrequencies( String s ) {
+		Map<String,Integer> ret = new HashMap<String,Integer>();
+
+		Matcher matcher = TOKEN_PATTERN.matcher( s );
+		while ( matcher.find() ) {
+			String term = matcher.group( 0 );
+			Integer count = ret.get( term );
+			ret.put( term, count != null ? count + 1 : 1 );
+		}
+
+		return ret;
+	}
+
+	private static double makeNorm( Map<String,Integer> termFrequencies ) {
+		double ret = 0.0;
+
+		for ( Integer count : termFrequencies.values() ) {
+			ret += (double) count.intValue() * count.intValue();
+		}
+
+		return ret;
+	}
+
+	private static BitSet makeCharSet( String s ) {
+		BitSet ret = new BitSet( 128 );
+
+		for ( int i = 0; i < s.length(); i++ ) {
+			ret.set( s.charAt( i ) );
+		}
+
+		return ret;
+	}
+}
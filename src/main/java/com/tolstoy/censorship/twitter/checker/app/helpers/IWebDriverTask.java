@@ -0,0 +1,29 @@
+/*
+ * Copyright 2018 Chris Kelly
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.tolstoy.censorship.twitter.checker.app.helpers;
+
+import org.openqa.selenium.WebDriver;
+import com.tolstoy.basic.api.tweet.ITweet;
+import com.tolstoy.censorship.twitter.checker.api.webdriver.IWebDriverUtils;
+
+/**
+ * A unit of work for WebDriverPool: load whatever page(s) are needed
+ * for one source tweet using the given driver.
+ */
+public interface IWebDriverTask<T> {
+	/**
+	 * @return the result, or null if nothing was found for the tweet
+	 */
+	T run( WebDriver webDriver, IWebDriverUtils webDriverUtils, ITweet sourceTweet ) throws Exception;
+}
@@ -0,0 +1,203 @@
+/*
+ * Copyright 2018 Chris Kelly
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.tolstoy.censorship.twitter.checker.app.helpers;
+
+import java.util.*;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import com.tolstoy.basic.api.storage.*;
+import com.tolstoy.basic.api.tweet.*;
+import com.tolstoy.basic.app.utils.Utils;
+import com.tolstoy.censorship.twitter.checker.api.preferences.IPreferences;
+import com.tolstoy.censorship.twitter.checker.api.searchrun.*;
+import com.tolstoy.censorship.twitter.checker.api.snapshot.ISnapshotUserPageTimeline;
+import com.tolstoy.censorship.twitter.checker.app.storage.StorageTable;
+
+/**
+ * Decides whether a search run only needs to look at tweets newer than
+ * the previous run of the same kind for the same handle.
+ *
+ * If prefs.incremental_runs is on and there's a previous run, the run
+ * only scrolls the timeline back to the newest tweet that the previous
+ * run saw, and only checks the tweets after that. Every
+ * prefs.incremental_full_run_days days a full run is done instead, so
+ * that older tweets are checked again.
+ *
+ * The since-ID and the time of the last full run are kept in the run's
+ * attributes so that the next run can find them.
+ */
+class IncrementalRunPlanner {
+	private static final Logger logger = LogManager.getLogger( IncrementalRunPlanner.class );
+
+	static final String ATTR_SINCE_TWEET_ID = "incremental_since";
+	static final String ATTR_LAST_FULL_RUN = "last_full_run";
+
+		//	runs of both kinds are in the same table, so look at a few to find the right kind
+	private static final int MAX_RUNS_TO_SEARCH = 5;
+	private static final int DEFAULT_FULL_RUN_DAYS = 7;
+
+	private IStorage storage;
+	private IPreferences prefs;
+	private Class<? extends ISearchRun> runClass;
+	private String handle;
+	private long sinceTweetID;
+	private Instant lastFullRun;
+
+	IncrementalRunPlanner( IStorage storage, IPreferences prefs, Class<? extends ISearchRun> runClass, String handle ) {
+		this.storage = storage;
+		this.prefs = prefs;
+		this.runClass = runClass;
+		this.handle = Utils.trimDefault( handle ).replace( "@", "" ).toLowerCase();
+		this.sinceTweetID = 0;
+		this.lastFullRun = null;
+	}
+
+	/**
+	 * Look up the previous run. Errors are logged and result in a full run.
+	 */
+	void plan() {
+		sinceTweetID = 0;
+		lastFullRun = null;
+
+		if ( !Utils.isStringTrue( prefs.getValue( "prefs.incremental_runs" ) ) ) {
+			return;
+		}
+
+		try {
+			ISearchRun previous = findPreviousRun();
+			if ( previous == null ) {
+				logger.info( "no previous run for " + handle + ", doing a full run" );
+				return;
+			}
+
+			Instant previousFullRun = getLastFullRun( previous );
+			int fullRunDays = Math.max( 0, Utils.parseIntDefault( prefs.getValue( "prefs.incremental_full_run_days" ), DEFAULT_FULL_RUN_DAYS ) );
+
+			if ( previousFullRun == null || previousFullRun.isBefore( Instant.now().minus( fullRunDays, ChronoUnit.DAYS ) ) ) {
+				logger.info( "last full run for " + handle + " was " + previousFullRun + ", doing a full run" );
+				return;
+			}
+
+			sinceTweetID = getNewestTweetID( previous );
+			if ( sinceTweetID != 0 ) {
+				lastFullRun = previousFullRun;
+			}
+
+			logger.info( "incremental run for " + handle + " since tweet " + sinceTweetID + ", last full run " + previousFullRun );
+		}
+		catch ( Exception e ) {
+			logger.error( "cannot find previous run for " + handle + ", doing a full run", e );
+			sinceTweetID = 0;
+			lastFullRun = null;
+		}
+	}
+
+	/**
+	 * @return the ID of the newest tweet the previous run saw, or 0 to do a full run
+	 */
+	long getSinceTweetID() {
+		return sinceTweetID;
+	}
+
+	boolean isIncremental() {
+		return sinceTweetID != 0;
+	}
+
+	/**
+	 * @return the tweets that are newer than the previous run, or all of them for a full run
+	 */
+	List<ITweet> filterNewTweets( List<ITweet> tweets ) {
+		if ( !isIncremental() ) {
+			return tweets;
+		}
+
+		List<ITweet> ret = new ArrayList<ITweet>( tweets.size() );
+		for ( ITweet tweet : tweets ) {
+			if ( tweet.getID() > sinceTweetID ) {
+				ret.add( tweet );
+			}
+		}
+
+		return ret;
+	}
+
+	void setAttributes( ISearchRun searchRun ) {
+		searchRun.setAttribute( ATTR_SINCE_TWEET_ID, String.valueOf( sinceTweetID ) );
+		searchRun.setAttribute( ATTR_LAST_FULL_RUN, String.valueOf( isIncremental() ? lastFullRun : searchRun.getStartTime() ) );
+	}
+
+	private ISearchRun findPreviousRun() throws Exception {
+		final List<ISearchRun> found = new ArrayList<ISearchRun>( 1 );
+		final int[] numSearched = new int[] { 0 };
+
+		storage.visitRecords( StorageTable.SEARCHRUN, handle, StorageOrdering.DESC, new IStorableVisitor() {
+			@Override
+			public boolean visit( IStorable record ) {
+				if ( runClass.isInstance( record ) ) {
+					found.add( runClass.cast( record ) );
+					return false;
+				}
+
+				return ++numSearched[ 0 ] < MAX_RUNS_TO_SEARCH;
+			}
+		});
+
+		return found.isEmpty() ? null : found.get( 0 );
+	}
+
+	private Instant getLastFullRun( ISearchRun searchRun ) {
+		String s = searchRun.getAttribute( ATTR_LAST_FULL_RUN );
+		if ( Utils.isEmpty( s ) ) {
+				//	runs from before this mode existed were all full runs
+			return searchRun.getStartTime();
+		}
+
+		try {
+			return Instant.parse( s );
+		}
+		catch ( Exception e ) {
+			return null;
+		}
+	}
+
+	private long getNewestTweetID( ISearchRun searchRun ) {
+		ISnapshotUserPageTimeline timeline = null;
+
+		if ( searchRun instanceof ISearchRunReplies ) {
+			timeline = ( (ISearchRunReplies) searchRun ).getTimeline();
+		}
+		else if ( searchRun instanceof ISearchRunTimeline ) {
+			timeline = ( (ISearchRunTimeline) searchRun ).getTimeline();
+		}
+
+			//	an incremental run with no new tweets still knows where it started
+		long ret = Utils.parseLongDefault( searchRun.getAttribute( ATTR_SINCE_TWEET_ID ) );
+
+		if ( timeline == null || timeline.getTweetCollection() == null || timeline.getTweetCollection().getTweets() == null ) {
+			return ret;
+		}
+
+			//	only the user's own tweets: a retweet's ID is the original tweet's
+		for ( ITweet tweet : timeline.getTweetCollection().getTweets() ) {
+			ITweetUser user = tweet.getUser();
+			if ( user != null && handle.equals( user.getHandle() ) && tweet.getID() > ret ) {
+				ret = tweet.getID();
+			}
+		}
+
+		return ret;
+	}
+}
@@ -60,5 +60,18 @@ public class LoginToSite {
 		temp = webDriverUtils.safeFindByClass( formElem, "submit" );
 		temp.click();
 	}
+
+	/**
+	 * @return true if the page currently in webDriver is for a logged in user
+	 */
+	public static boolean isLoggedIn( WebDriver webDriver ) {
+		try {
+			Object ret = ( (JavascriptExecutor) webDriver ).executeScript( "return document.body != null && document.body.classList.contains( 'logged-in' );" );
+			return Boolean.TRUE.equals( ret );
+		}
+		catch ( Exception e ) {
+			return false;
+		}
+	}
 }
 
@@ -0,0 +1,165 @@
+/*
+ * Copyright 2018 Chris Kelly
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.tolstoy.censorship.twitter.checker.app.helpers;
+
+import java.util.*;
+import java.util.concurrent.*;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import com.tolstoy.censorship.twitter.checker.api.snapshot.*;
+
+/**
+ * Individual tweet pages loaded during one search run, keyed by the ID
+ * of the page's tweet, so that several replies by the user in the same
+ * conversation share one page load.
+ *
+ * The IDs of the user's replies that are expected on a page are added
+ * up front with addWanted(). The page is then loaded once, scrolled until
+ * all of them are found. A lookup for a reply that wasn't expected reuses
+ * the page if it has the reply or was loaded completely, otherwise the
+ * page is loaded again with that reply added.
+ *
+ * Safe to use from several threads: when two threads want the same page,
+ * one loads it and the other waits for it.
+ */
+class ReplyPageCache {
+	private static final Logger logger = LogManager.getLogger( ReplyPageCache.class );
+
+	interface Loader {
+		ISnapshotUserPageIndividualTweet load( Set<Long> userReplyTweetIDs ) throws Exception;
+	}
+
+	private static class Entry {
+		private Set<Long> userReplyTweetIDs;
+		private FutureTask<ISnapshotUserPageIndividualTweet> task;
+
+		Entry( Set<Long> userReplyTweetIDs, FutureTask<ISnapshotUserPageIndividualTweet> task ) {
+			this.userReplyTweetIDs = userReplyTweetIDs;
+			this.task = task;
+		}
+	}
+
+	private Map<Long,Set<Long>> wanted;
+	private ConcurrentMap<Long,Entry> entries;
+	private int numLoads, numHits;
+
+	ReplyPageCache() {
+		this.wanted = new HashMap<Long,Set<Long>>();
+		this.entries = new ConcurrentHashMap<Long,Entry>();
+		this.numLoads = 0;
+		this.numHits = 0;
+	}
+
+	synchronized void addWanted( long pageTweetID, long userReplyTweetID ) {
+		Set<Long> set = wanted.get( pageTweetID );
+		if ( set == null ) {
+			set = new HashSet<Long>();
+			wanted.put( pageTweetID, set );
+		}
+
+		set.add( userReplyTweetID );
+	}
+
+	ISnapshotUserPageIndividualTweet get( long pageTweetID, long userReplyTweetID, final Loader loader ) throws Exception {
+		while ( true ) {
+			Entry entry = entries.get( pageTweetID );
+
+			if ( entry != null ) {
+				ISnapshotUserPageIndividualTweet page = getResult( pageTweetID, entry );
+
+				if ( entry.userReplyTweetIDs.contains( userReplyTweetID ) || page.getComplete() ) {
+					countHit();
+					return page;
+				}
+
+				Set<Long> ids = new HashSet<Long>( entry.userReplyTweetIDs );
+				ids.add( userReplyTweetID );
+
+				Entry newEntry = makeEntry( ids, loader );
+
+				if ( entries.replace( pageTweetID, entry, newEntry ) ) {
+					logger.info( "reloading page " + pageTweetID + " to look for " + userReplyTweetID );
+					return runEntry( pageTweetID, newEntry );
+				}
+			}
+			else {
+				Entry newEntry = makeEntry( getWanted( pageTweetID, userReplyTweetID ), loader );
+
+				if ( entries.putIfAbsent( pageTweetID, newEntry ) == null ) {
+					return runEntry( pageTweetID, newEntry );
+				}
+			}
+		}
+	}
+
+	synchronized int getNumLoads() {
+		return numLoads;
+	}
+
+	synchronized int getNumHits() {
+		return numHits;
+	}
+
+	private synchronized Set<Long> getWanted( long pageTweetID, long userReplyTweetID ) {
+		Set<Long> ret = new HashSet<Long>();
+
+		Set<Long> set = wanted.get( pageTweetID );
+		if ( set != null ) {
+			ret.addAll( set );
+		}
+
+		ret.add( userReplyTweetID );
+
+		return ret;
+	}
+
+	private Entry makeEntry( final Set<Long> userReplyTweetIDs, final Loader loader ) {
+		return new Entry( userReplyTweetIDs, new FutureTask<ISnapshotUserPageIndividualTweet>( new Callable<ISnapshotUserPageIndividualTweet>() {
+			@Override
+			public ISnapshotUserPageIndividualTweet call() throws Exception {
+				return loader.load( userReplyTweetIDs );
+			}
+		}));
+	}
+
+	private ISnapshotUserPageIndividualTweet runEntry( long pageTweetID, Entry entry ) throws Exception {
+		synchronized ( this ) {
+			numLoads++;
+		}
+
+		entry.task.run();
+
+		return getResult( pageTweetID, entry );
+	}
+
+	private ISnapshotUserPageIndividualTweet getResult( long pageTweetID, Entry entry ) throws Exception {
+		try {
+			return entry.task.get();
+		}
+		catch ( ExecutionException e ) {
+				//	let a later lookup try again
+			entries.remove( pageTweetID, entry );
+
+			if ( e.getCause() instanceof Exception ) {
+				throw (Exception) e.getCause();
+			}
+
+			throw e;
+		}
+	}
+
+	private synchronized void countHit() {
+		numHits++;
+	}
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2018 Chris Kelly
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.tolstoy.censorship.twitter.checker.app.helpers;
+
+import java.util.*;
+import java.time.Instant;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.tolstoy.basic.api.storage.IStorable;
+
+/**
+ * Marks a search run that's in progress, so that its saved items
+ * (SearchRunCheckpointItem) can be used if the run has to be restarted.
+ */
+@JsonIgnoreProperties(ignoreUnknown=true)
+class SearchRunCheckpoint implements IStorable {
+	@JsonProperty
+	private long id;
+
+	@JsonProperty
+	private Instant createTime;
+
+	@JsonProperty
+	private Instant modifyTime;
+
+	@JsonProperty
+	private String runKey;
+
+	@JsonProperty
+	private String settings;
+
+	@JsonProperty
+	private boolean finished;
+
+	SearchRunCheckpoint() {
+		this.id = 0;
+		this.createTime = this.modifyTime = Instant.now();
+		this.runKey = "";
+		this.settings = "";
+		this.finished = false;
+	}
+
+	SearchRunCheckpoint( String runKey, String settings ) {
+		this();
+		this.runKey = runKey;
+		this.settings = settings;
+	}
+
+	String getSettings() {
+		return settings;
+	}
+
+	boolean isFinished() {
+		return finished;
+	}
+
+	void setFinished( boolean finished ) {
+		this.finished = finished;
+		this.modifyTime = Instant.now();
+	}
+
+	@Override
+	public long getID() {
+		return id;
+	}
+
+	@Override
+	public void setID( long id ) {
+		this.id = id;
+	}
+
+	@Override
+	public Instant getCreateTime() {
+		return createTime;
+	}
+
+	@Override
+	public Instant getModifyTime() {
+		return modifyTime;
+	}
+
+	@Override
+	public String getSearchKey() {
+		return runKey;
+	}
+
+	@Override
+	public String toString() {
+		return new ToStringBuilder( this )
+		.append( "id", id )
+		.append( "createTime", createTime )
+		.append( "modifyTime", modifyTime )
+		.append( "runKey", runKey )
+		.append( "settings", settings )
+		.append( "finished", finished )
+		.toString();
+	}
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright 2018 Chris Kelly
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.tolstoy.censorship.twitter.checker.app.helpers;
+
+import java.util.*;
+import java.time.Instant;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.tolstoy.basic.api.storage.IStorable;
+
+/**
+ * One finished piece of a search run in progress, like an IReplyThread,
+ * stored under the ID of the source tweet it was made for.
+ */
+@JsonIgnoreProperties(ignoreUnknown=true)
+class SearchRunCheckpointItem implements IStorable {
+	@JsonProperty
+	private long id;
+
+	@JsonProperty
+	private Instant createTime;
+
+	@JsonProperty
+	private Instant modifyTime;
+
+	@JsonProperty
+	private long checkpointID;
+
+	@JsonProperty
+	private long sourceTweetID;
+
+	@JsonProperty
+	private Object item;
+
+	SearchRunCheckpointItem() {
+		this.id = 0;
+		this.createTime = this.modifyTime = Instant.now();
+		this.checkpointID = 0;
+		this.sourceTweetID = 0;
+		this.item = null;
+	}
+
+	SearchRunCheckpointItem( long checkpointID, long sourceTweetID, Object item ) {
+		this();
+		this.checkpointID = checkpointID;
+		this.sourceTweetID = sourceTweetID;
+		this.item = item;
+	}
+
+	static String makeSearchKey( long checkpointID ) {
+		return "checkpoint:" + checkpointID;
+	}
+
+	long getSourceTweetID() {
+		return sourceTweetID;
+	}
+
+	Object getItem() {
+		return item;
+	}
+
+	@Override
+	public long getID() {
+		return id;
+	}
+
+	@Override
+	public void setID( long id ) {
+		this.id = id;
+	}
+
+	@Override
+	public Instant getCreateTime() {
+		return createTime;
+	}
+
+	@Override
+	public Instant getModifyTime() {
+		return modifyTime;
+	}
+
+	@Override
+	public String getSearchKey() {
+		return makeSearchKey( checkpointID );
+	}
+
+	@Override
+	public String toString() {
+		return new ToStringBuilder( this )
+		.append( "id", id )
+		.append( "createTime", createTime )
+		.append( "modifyTime", modifyTime )
+		.append( "checkpointID", checkpointID )
+		.append( "sourceTweetID", sourceTweetID )
+		.toString();
+	}
+}
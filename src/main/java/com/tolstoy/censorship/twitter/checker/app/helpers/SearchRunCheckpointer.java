@@ -0,0 +1,155 @@
+/*
+ * Copyright 2018 Chris Kelly
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.tolstoy.censorship.twitter.checker.app.helpers;
+
+import java.util.*;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import com.tolstoy.basic.api.storage.*;
+import com.tolstoy.basic.app.utils.Utils;
+import com.tolstoy.censorship.twitter.checker.app.storage.StorageTable;
+
+/**
+ * Saves each finished piece of a search run as soon as it's done, so
+ * that if the run fails partway through, the next run for the same
+ * handle and settings can pick up where it left off.
+ *
+ * begin() returns the items saved by an unfinished run for the same
+ * run key and settings that's less than MAX_AGE_HOURS old, or an empty
+ * map if there isn't one. finish() marks the run as done so that it
+ * won't be resumed, and deletes its items. begin() also deletes whatever
+ * is older than MAX_AGE_HOURS, since it can't be resumed anyway.
+ *
+ * Storage errors are logged and otherwise ignored: checkpointing should
+ * never make a run fail.
+ */
+class SearchRunCheckpointer<T> {
+	private static final Logger logger = LogManager.getLogger( SearchRunCheckpointer.class );
+
+	private static final int MAX_AGE_HOURS = 24;
+	private static final int MAX_ITEMS = 10000;
+
+	private IStorage storage;
+	private Class<T> itemClass;
+	private String runKey;
+	private String settings;
+	private SearchRunCheckpoint checkpoint;
+
+	SearchRunCheckpointer( IStorage storage, Class<T> itemClass, String kind, String handle, String settings ) {
+		this.storage = storage;
+		this.itemClass = itemClass;
+		this.runKey = kind + ":" + Utils.trimDefault( handle ).toLowerCase();
+		this.settings = settings;
+		this.checkpoint = null;
+	}
+
+	Map<Long,T> begin() {
+		Map<Long,T> ret = new HashMap<Long,T>();
+
+		try {
+			purgeExpired();
+
+			checkpoint = findResumable();
+
+			if ( checkpoint != null ) {
+				List<IStorable> records = storage.getRecords( StorageTable.CHECKPOINT,
+																SearchRunCheckpointItem.makeSearchKey( checkpoint.getID() ),
+																StorageOrdering.ASC, MAX_ITEMS );
+
+				for ( IStorable record : records ) {
+					if ( record instanceof SearchRunCheckpointItem ) {
+						SearchRunCheckpointItem checkpointItem = (SearchRunCheckpointItem) record;
+						if ( itemClass.isInstance( checkpointItem.getItem() ) ) {
+							ret.put( checkpointItem.getSourceTweetID(), itemClass.cast( checkpointItem.getItem() ) );
+						}
+					}
+				}
+
+				logger.info( "resuming " + checkpoint + " with " + ret.size() + " items" );
+
+				return ret;
+			}
+
+			checkpoint = new SearchRunCheckpoint( runKey, settings );
+			storage.saveRecord( StorageTable.CHECKPOINT, checkpoint );
+		}
+		catch ( Exception e ) {
+			logger.error( "cannot start checkpoint for " + runKey, e );
+			checkpoint = null;
+		}
+
+		return ret;
+	}
+
+	synchronized void save( long sourceTweetID, T item ) {
+		if ( checkpoint == null || item == null ) {
+			return;
+		}
+
+		try {
+			storage.saveRecord( StorageTable.CHECKPOINT, new SearchRunCheckpointItem( checkpoint.getID(), sourceTweetID, item ) );
+		}
+		catch ( Exception e ) {
+			logger.error( "cannot save checkpoint item for " + sourceTweetID, e );
+		}
+	}
+
+	synchronized void finish() {
+		if ( checkpoint == null ) {
+			return;
+		}
+
+		try {
+			checkpoint.setFinished( true );
+			storage.saveRecord( StorageTable.CHECKPOINT, checkpoint );
+
+			storage.deleteRecords( StorageTable.CHECKPOINT, SearchRunCheckpointItem.makeSearchKey( checkpoint.getID() ) );
+		}
+		catch ( Exception e ) {
+			logger.error( "cannot finish checkpoint " + checkpoint, e );
+		}
+	}
+
+	private void purgeExpired() {
+		try {
+			storage.deleteRecordsModifiedBefore( StorageTable.CHECKPOINT, getExpiryCutoff() );
+		}
+		catch ( Exception e ) {
+			logger.error( "cannot delete expired checkpoints", e );
+		}
+	}
+
+	private Instant getExpiryCutoff() {
+		return Instant.now().minus( MAX_AGE_HOURS, ChronoUnit.HOURS );
+	}
+
+	private SearchRunCheckpoint findResumable() throws Exception {
+		List<IStorable> records = storage.getRecords( StorageTable.CHECKPOINT, runKey, StorageOrdering.DESC, 1 );
+		if ( records == null || records.size() < 1 || !( records.get( 0 ) instanceof SearchRunCheckpoint ) ) {
+			return null;
+		}
+
+		SearchRunCheckpoint latest = (SearchRunCheckpoint) records.get( 0 );
+
+		if ( latest.isFinished() ||
+				!settings.equals( latest.getSettings() ) ||
+				latest.getCreateTime().isBefore( getExpiryCutoff() ) ) {
+			return null;
+		}
+
+		return latest;
+	}
+}
@@ -14,6 +14,7 @@
 package com.tolstoy.censorship.twitter.checker.app.helpers;
 
 import java.util.*;
+import java.util.concurrent.CountDownLatch;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import com.tolstoy.basic.api.statusmessage.*;
@@ -22,31 +23,102 @@ import com.tolstoy.basic.app.utils.Utils;
 import com.tolstoy.basic.api.utils.IResourceBundleWithFormatting;
 import com.tolstoy.censorship.twitter.checker.api.preferences.IPreferences;
 import com.tolstoy.censorship.twitter.checker.api.searchrun.ISearchRun;
-import com.tolstoy.censorship.twitter.checker.api.searchrun.ISearchRunProcessor;
+import com.tolstoy.censorship.twitter.checker.api.searchrun.ISearchRunIndex;
+import com.tolstoy.censorship.twitter.checker.api.searchrun.ISearchRunWritingProcessor;
 import com.tolstoy.censorship.twitter.checker.app.storage.StorageTable;
 
-public class SearchRunProcessorInsertNewToStorage implements ISearchRunProcessor {
+public class SearchRunProcessorInsertNewToStorage implements ISearchRunWritingProcessor {
 	private static final Logger logger = LogManager.getLogger( SearchRunProcessorInsertNewToStorage.class );
 
 	private IResourceBundleWithFormatting bundle;
 	private IPreferences prefs;
-	private IStorage storage;
+	private IWriteBehindStorage storage;
+	private ISearchRunIndex searchRunIndex;
+	private Map<ISearchRun,CountDownLatch> pendingWrites;
 
-	public SearchRunProcessorInsertNewToStorage( IResourceBundleWithFormatting bundle, IPreferences prefs, IStorage storage ) {
+	/**
+	 * @param searchRunIndex the tweets in the search run are added to this after
+	 * the search run is saved, or null to only save the search run
+	 */
+	public SearchRunProcessorInsertNewToStorage( IResourceBundleWithFormatting bundle, IPreferences prefs, IWriteBehindStorage storage,
+													ISearchRunIndex searchRunIndex ) {
 		this.bundle = bundle;
 		this.prefs = prefs;
 		this.storage = storage;
+		this.searchRunIndex = searchRunIndex;
+		this.pendingWrites = new IdentityHashMap<ISearchRun,CountDownLatch>();
 	}
 
+	/**
+	 * Queues the search run to be written and returns without waiting.
+	 * The search run gets its ID, and is indexed, on the storage writer thread;
+	 * awaitChanges() waits for the ID.
+	 */
 	@Override
-	public ISearchRun process( ISearchRun searchRun, IStatusMessageReceiver statusMessageReceiver ) throws Exception {
-		storage.saveRecord( StorageTable.SEARCHRUN, (IStorable) searchRun );
+	public ISearchRun process( final ISearchRun searchRun, final IStatusMessageReceiver statusMessageReceiver ) throws Exception {
+		final CountDownLatch written = new CountDownLatch( 1 );
 
-		statusMessageReceiver.addMessage( new StatusMessage( "Wrote search run to storage", StatusMessageSeverity.INFO ) );
+		synchronized ( pendingWrites ) {
+			pendingWrites.put( searchRun, written );
+		}
+
+		try {
+			storage.saveRecordLater( StorageTable.SEARCHRUN, (IStorable) searchRun, new IStorageWriteListener() {
+				@Override
+				public void recordWritten( IStorageTable table, IStorable record, Exception error ) {
+						//	indexing doesn't change the search run, so there's no need to wait for it
+					written.countDown();
+
+					if ( error != null ) {
+						statusMessageReceiver.addMessage( new StatusMessage( bundle.getString( "srp_write_failed", error.getMessage() ), StatusMessageSeverity.ERROR ) );
+						return;
+					}
+
+					indexSearchRun( searchRun, statusMessageReceiver );
+				}
+			});
+		}
+		catch ( Exception e ) {
+			synchronized ( pendingWrites ) {
+				pendingWrites.remove( searchRun );
+			}
+
+			throw e;
+		}
+
+		statusMessageReceiver.addMessage( new StatusMessage( bundle.getString( "srp_writing_search_run" ), StatusMessageSeverity.INFO ) );
 
 		return searchRun;
 	}
 
+	@Override
+	public void awaitChanges( ISearchRun searchRun ) throws InterruptedException {
+		CountDownLatch written;
+
+		synchronized ( pendingWrites ) {
+			written = pendingWrites.remove( searchRun );
+		}
+
+		if ( written != null ) {
+			written.await();
+		}
+	}
+
+	protected void indexSearchRun( ISearchRun searchRun, IStatusMessageReceiver statusMessageReceiver ) {
+		if ( searchRunIndex == null ) {
+			return;
+		}
+
+		try {
+			searchRunIndex.indexSearchRun( searchRun );
+		}
+		catch ( Exception e ) {
+				//	the search run is saved, and the index can be rebuilt from it
+			logger.error( "cannot index search run " + searchRun.getID(), e );
+			statusMessageReceiver.addMessage( new StatusMessage( bundle.getString( "srp_index_failed", e.getMessage() ), StatusMessageSeverity.WARN ) );
+		}
+	}
+
 	@Override
 	public String getDescription() {
 		return bundle.getString( "srp_insert_new_to_storage" );
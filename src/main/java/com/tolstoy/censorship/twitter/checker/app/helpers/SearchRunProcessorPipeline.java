@@ -0,0 +1,121 @@
+/*
+ * Copyright 2018 Chris Kelly
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.tolstoy.censorship.twitter.checker.app.helpers;
+
+import java.util.*;
+import java.util.concurrent.*;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import com.tolstoy.basic.api.statusmessage.*;
+import com.tolstoy.basic.api.utils.IResourceBundleWithFormatting;
+import com.tolstoy.censorship.twitter.checker.api.searchrun.ISearchRun;
+import com.tolstoy.censorship.twitter.checker.api.searchrun.ISearchRunProcessor;
+import com.tolstoy.censorship.twitter.checker.api.searchrun.ISearchRunWritingProcessor;
+
+/**
+ * Runs the search run processors, each on its own thread, and waits
+ * until they've all finished.
+ *
+ * Processors that change the search run (ISearchRunWritingProcessor,
+ * e.g. storage, which sets its ID) run first, and the pipeline waits for
+ * their changes. The rest (e.g. upload and report) only read the search
+ * run, so they then run at the same time. What a processor returns isn't
+ * passed to the next. Errors are sent to the status message receiver and
+ * don't stop the other processors.
+ */
+public class SearchRunProcessorPipeline {
+	private static final Logger logger = LogManager.getLogger( SearchRunProcessorPipeline.class );
+
+	private IResourceBundleWithFormatting bundle;
+	private List<ISearchRunProcessor> searchRunProcessors;
+
+	public SearchRunProcessorPipeline( IResourceBundleWithFormatting bundle, List<ISearchRunProcessor> searchRunProcessors ) {
+		this.bundle = bundle;
+		this.searchRunProcessors = searchRunProcessors;
+	}
+
+	/**
+	 * Don't call this on the EDT: it waits for all of the processors.
+	 * @return the number of processors that failed
+	 */
+	public int process( final ISearchRun searchRun, final IStatusMessageReceiver statusMessageReceiver ) throws InterruptedException {
+		if ( searchRunProcessors.isEmpty() ) {
+			return 0;
+		}
+
+		List<ISearchRunProcessor> writers = new ArrayList<ISearchRunProcessor>();
+		List<ISearchRunProcessor> readers = new ArrayList<ISearchRunProcessor>();
+
+		for ( ISearchRunProcessor processor : searchRunProcessors ) {
+			if ( processor instanceof ISearchRunWritingProcessor ) {
+				writers.add( processor );
+			}
+			else {
+				readers.add( processor );
+			}
+		}
+
+		ExecutorService executor = Executors.newFixedThreadPool( Math.max( writers.size(), readers.size() ) );
+		int numFailed = 0;
+
+		try {
+			numFailed += processAll( executor, writers, searchRun, statusMessageReceiver );
+
+			for ( ISearchRunProcessor writer : writers ) {
+				( (ISearchRunWritingProcessor) writer ).awaitChanges( searchRun );
+			}
+
+			numFailed += processAll( executor, readers, searchRun, statusMessageReceiver );
+		}
+		finally {
+			executor.shutdownNow();
+		}
+
+		return numFailed;
+	}
+
+	/**
+	 * Run the processors at the same time and wait for all of them.
+	 * @return the number of processors that failed
+	 */
+	protected int processAll( ExecutorService executor, List<ISearchRunProcessor> processors,
+								final ISearchRun searchRun, final IStatusMessageReceiver statusMessageReceiver ) throws InterruptedException {
+		List<Future<ISearchRun>> futures = new ArrayList<Future<ISearchRun>>( processors.size() );
+		int numFailed = 0;
+
+		for ( final ISearchRunProcessor processor : processors ) {
+			futures.add( executor.submit( new Callable<ISearchRun>() {
+				@Override
+				public ISearchRun call() throws Exception {
+					return processor.process( searchRun, statusMessageReceiver );
+				}
+			}));
+		}
+
+		for ( int i = 0; i < futures.size(); i++ ) {
+			try {
+				futures.get( i ).get();
+			}
+			catch ( ExecutionException e ) {
+				ISearchRunProcessor processor = processors.get( i );
+				String s = bundle.getString( "exc_srp", processor.getDescription(), e.getCause().getMessage() );
+				logger.error( s, e.getCause() );
+				statusMessageReceiver.addMessage( new StatusMessage( s, StatusMessageSeverity.ERROR ) );
+				numFailed++;
+			}
+		}
+
+		return numFailed;
+	}
+}
@@ -17,7 +17,6 @@ import java.util.*;
 import java.sql.*;
 import java.time.Instant;
 import org.openqa.selenium.WebDriver;
-import org.openqa.selenium.Point;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import com.tolstoy.basic.api.storage.*;
@@ -62,17 +61,22 @@ public class SearchRunRepliesBuilder {
 	private IPreferencesFactory prefsFactory;
 	private IPreferences prefs;
 	private IWebDriverFactory webDriverFactory;
+	private WebDriverSessionManager webDriverSessionManager;
 	private ISearchRunFactory searchRunFactory;
 	private ISnapshotFactory snapshotFactory;
 	private ITweetFactory tweetFactory;
 	private IStatusMessageReceiver statusMessageReceiver;
 	private String handleToCheck;
+	private SearchRunCheckpointer<IReplyThread> checkpointer;
+	private IncrementalRunPlanner incrementalRunPlanner;
+	private ReplyPageCache replyPageCache;
 
 	public SearchRunRepliesBuilder( IResourceBundleWithFormatting bundle,
 						IStorage storage,
 						IPreferencesFactory prefsFactory,
 						IPreferences prefs,
 						IWebDriverFactory webDriverFactory,
+						WebDriverSessionManager webDriverSessionManager,
 						ISearchRunFactory searchRunFactory,
 						ISnapshotFactory snapshotFactory,
 						ITweetFactory tweetFactory,
@@ -83,25 +87,20 @@ public class SearchRunRepliesBuilder {
 		this.prefsFactory = prefsFactory;
 		this.prefs = prefs;
 		this.webDriverFactory = webDriverFactory;
+		this.webDriverSessionManager = webDriverSessionManager;
 		this.searchRunFactory = searchRunFactory;
 		this.snapshotFactory = snapshotFactory;
 		this.tweetFactory = tweetFactory;
 		this.statusMessageReceiver = statusMessageReceiver;
 		this.handleToCheck = handleToCheck;
+		this.replyPageCache = new ReplyPageCache();
 	}
 
 	public ISearchRunReplies buildSearchRunReplies( int numberOfTimelinePagesToCheck, int numberOfReplyPagesToCheck, int maxReplies ) throws Exception {
-		WebDriver webDriver = null;
-		IWebDriverUtils webDriverUtils = null;
-		LoginToSite loginToSite = null;
-
-		if ( webDriverFactory == null ) {
-			throw new RuntimeException( bundle.getString( "exc_no_webdriverfactory" ) );
-		}
+		WebDriverSession session = null;
 
 		try {
-			webDriver = webDriverFactory.makeWebDriver();
-			webDriver.manage().window().setPosition( new Point( -5000, 0 ) );
+			session = webDriverSessionManager.acquire( statusMessageReceiver );
 		}
 		catch ( Exception e ) {
 			logger.error( "cannot create webDriver", e );
@@ -109,38 +108,32 @@ public class SearchRunRepliesBuilder {
 			throw e;
 		}
 
-		try {
-			webDriverUtils = webDriverFactory.makeWebDriverUtils( webDriver );
+		incrementalRunPlanner = new IncrementalRunPlanner( storage, prefs, ISearchRunReplies.class, handleToCheck );
+		incrementalRunPlanner.plan();
 
-			String loginName = prefs.getValue( "prefs.testing_account_name_private" );
-			String loginPassword = prefs.getValue( "prefs.testing_account_password_private" );
+		checkpointer = new SearchRunCheckpointer<IReplyThread>( storage, IReplyThread.class, "replies", handleToCheck,
+																numberOfTimelinePagesToCheck + "," + numberOfReplyPagesToCheck + "," +
+																maxReplies + "," + session.isLoggedIn() + "," +
+																incrementalRunPlanner.getSinceTweetID() );
 
-			if ( !Utils.isEmpty( loginName ) && !Utils.isEmpty( loginPassword ) ) {
-				loginToSite = new LoginToSite( loginName, loginPassword, prefs );
-				loginToSite.perform( webDriver, webDriverUtils );
-			}
+		try {
+			ISearchRunReplies ret = buildSearchRunRepliesInternal( session.getWebDriver(), session.getWebDriverUtils(), numberOfTimelinePagesToCheck, numberOfReplyPagesToCheck, maxReplies );
 
-			ISearchRunReplies ret = buildSearchRunRepliesInternal( webDriver, webDriverUtils, numberOfTimelinePagesToCheck, numberOfReplyPagesToCheck, maxReplies );
+			checkpointer.finish();
 
 			ret.setAttribute( "handle_to_check", handleToCheck );
-			ret.setAttribute( "loggedin", loginToSite != null ? "true" : "false" );
+			ret.setAttribute( "loggedin", session.isLoggedIn() ? "true" : "false" );
+			incrementalRunPlanner.setAttributes( ret );
 
 			return ret;
 		}
 		catch ( Exception e ) {
-			logger.error( "error logging in or building searchRun", e );
+			logger.error( "error building searchRun", e );
 			throw e;
 		}
 		finally {
-			if ( webDriver != null ) {
-				try {
-					webDriver.close();
-				}
-				catch ( Exception e ) {
-					logger.error( "cannot close webDriver", e );
-					statusMessageReceiver.addMessage( new StatusMessage( "cannot close webDriver", StatusMessageSeverity.ERROR ) );
-				}
-			}
+				//	keep the browser open for the next run
+			webDriverSessionManager.release( session );
 
 			logInfo( bundle.getString( "srb_done", handleToCheck ) );
 		}
@@ -161,6 +154,11 @@ public class SearchRunRepliesBuilder {
 																	webDriverUtils,
 																	InfiniteScrollingActivatorType.TIMELINE );
 
+		if ( incrementalRunPlanner.isIncremental() ) {
+			logInfo( bundle.getString( "srb_incremental", incrementalRunPlanner.getSinceTweetID() ) );
+			scroller.setStopCondition( webDriverFactory.makeReachedTweetStopCondition( incrementalRunPlanner.getSinceTweetID() ) );
+		}
+
 		ISnapshotUserPageTimeline timeline;
 		timeline = webDriverFactory.makeSnapshotUserPageTimelineFromURL( webDriver,
 																			webDriverUtils,
@@ -182,7 +180,7 @@ public class SearchRunRepliesBuilder {
 		}
 		else {
 			logInfo( bundle.getString( "srb_loaded_timeline", tweetCollection.getTweets().size() ) );
-			replies = getReplyPages( webDriver, webDriverUtils, tweetCollection.getTweets(),
+			replies = getReplyPages( webDriver, webDriverUtils, incrementalRunPlanner.filterNewTweets( tweetCollection.getTweets() ),
 										user, numberOfReplyPagesToCheck, maxReplies );
 		}
 
@@ -192,29 +190,75 @@ public class SearchRunRepliesBuilder {
 	}
 
 	protected Map<Long,IReplyThread> getReplyPages( WebDriver webDriver, IWebDriverUtils webDriverUtils,
-																		List<ITweet> tweets, ITweetUser user,
-																		int numberOfReplyPagesToCheck, int maxReplies )
+																		List<ITweet> tweets, final ITweetUser user,
+																		final int numberOfReplyPagesToCheck, int maxReplies )
 																		throws Exception {
-		Map<Long,IReplyThread> replies = new HashMap<Long,IReplyThread>();
+		List<ITweet> sourceTweets = new ArrayList<ITweet>();
 
 		String handle = user.getHandle();
 
 		for ( ITweet tweet : tweets ) {
 				//	if it's a reply and not a self-reply
 			if ( tweet.getRepliedToTweetID() != 0 && !handle.equals( Utils.trimDefault( tweet.getRepliedToHandle() ).toLowerCase() ) ) {
-				IReplyThread thread = getReplyThread( webDriver, webDriverUtils, tweet, user, numberOfReplyPagesToCheck );
+				sourceTweets.add( tweet );
+			}
+		}
 
-				if ( thread != null ) {
-					replies.put( tweet.getID(), thread );
-				}
+		Map<Long,IReplyThread> ret = new HashMap<Long,IReplyThread>();
+		List<ITweet> remainingTweets = new ArrayList<ITweet>();
 
-				if ( replies.size() >= maxReplies ) {
-					break;
-				}
+			//	use what an earlier, failed run already loaded
+		Map<Long,IReplyThread> saved = checkpointer.begin();
+		for ( ITweet sourceTweet : sourceTweets ) {
+			IReplyThread item = saved.get( sourceTweet.getID() );
+			if ( item != null && ret.size() < maxReplies ) {
+				ret.put( sourceTweet.getID(), item );
 			}
+			else {
+				remainingTweets.add( sourceTweet );
+			}
+		}
+
+		if ( ret.size() > 0 ) {
+			logInfo( bundle.getString( "srb_resuming", ret.size() ) );
 		}
 
-		return replies;
+		int needed = maxReplies - ret.size();
+		if ( needed < 1 || remainingTweets.isEmpty() ) {
+			return ret;
+		}
+
+			//	replies in the same conversation share one load of the replied-to page
+		for ( int i = 0; i < remainingTweets.size() && i < needed; i++ ) {
+			replyPageCache.addWanted( remainingTweets.get( i ).getRepliedToTweetID(), remainingTweets.get( i ).getID() );
+		}
+
+		WebDriverPool webDriverPool = new WebDriverPool( bundle, webDriverSessionManager, statusMessageReceiver );
+
+		try {
+				//	no point in starting more browsers than there are pages to load
+			int numBrowsers = Math.min( Utils.parseIntDefault( prefs.getValue( "prefs.num_browsers" ), 1 ),
+										Math.min( remainingTweets.size(), needed ) );
+
+			webDriverPool.add( webDriver, webDriverUtils );
+			webDriverPool.addNew( numBrowsers - 1 );
+
+			ret.putAll( webDriverPool.run( remainingTweets, needed, new IWebDriverTask<IReplyThread>() {
+				@Override
+				public IReplyThread run( WebDriver webDriver, IWebDriverUtils webDriverUtils, ITweet sourceTweet ) throws Exception {
+					IReplyThread item = getReplyThread( webDriver, webDriverUtils, sourceTweet, user, numberOfReplyPagesToCheck );
+					checkpointer.save( sourceTweet.getID(), item );
+					return item;
+				}
+			}));
+
+			return ret;
+		}
+		finally {
+			webDriverPool.close();
+
+			logger.info( "reply pages loaded: " + replyPageCache.getNumLoads() + ", reused: " + replyPageCache.getNumHits() );
+		}
 	}
 
 	protected IReplyThread getReplyThread( WebDriver webDriver, IWebDriverUtils webDriverUtils, ITweet sourceTweet,
@@ -226,7 +270,8 @@ public class SearchRunRepliesBuilder {
 
 		try {
 			ISnapshotUserPageIndividualTweet replyPage = getReplyPage( webDriver, webDriverUtils, sourceTweet.getRepliedToTweetID(),
-																		sourceTweet.getRepliedToHandle(), user, numberOfReplyPagesToCheck );
+																		sourceTweet.getRepliedToHandle(), sourceTweet.getID(),
+																		user, numberOfReplyPagesToCheck );
 
 			IReplyThread defaultReplyThread = snapshotFactory.makeReplyThread( ReplyThreadType.DIRECT,
 																				sourceTweet,
@@ -266,8 +311,21 @@ public class SearchRunRepliesBuilder {
 		}
 	}
 
-	protected ISnapshotUserPageIndividualTweet getReplyPage( WebDriver webDriver, IWebDriverUtils webDriverUtils,
-																long tweetID, String userInURL, ITweetUser user, int numberOfReplyPagesToCheck )
+	protected ISnapshotUserPageIndividualTweet getReplyPage( final WebDriver webDriver, final IWebDriverUtils webDriverUtils,
+																final long tweetID, final String userInURL, long userReplyTweetID,
+																final ITweetUser user, final int numberOfReplyPagesToCheck )
+																throws Exception {
+		return replyPageCache.get( tweetID, userReplyTweetID, new ReplyPageCache.Loader() {
+			@Override
+			public ISnapshotUserPageIndividualTweet load( Set<Long> userReplyTweetIDs ) throws Exception {
+				return loadReplyPage( webDriver, webDriverUtils, tweetID, userInURL, userReplyTweetIDs, user, numberOfReplyPagesToCheck );
+			}
+		});
+	}
+
+	protected ISnapshotUserPageIndividualTweet loadReplyPage( WebDriver webDriver, IWebDriverUtils webDriverUtils,
+																long tweetID, String userInURL, Set<Long> userReplyTweetIDs,
+																ITweetUser user, int numberOfReplyPagesToCheck )
 																throws Exception {
 		ISnapshotUserPageIndividualTweet replyPage;
 		IInfiniteScrollingActivator scroller;
@@ -288,6 +346,12 @@ public class SearchRunRepliesBuilder {
 																	webDriverUtils,
 																	InfiniteScrollingActivatorType.INDIVIDUAL );
 
+			//	optional, because the report can't rank a reply against the
+			//	tweets below it once they're left out
+		if ( Utils.isStringTrue( prefs.getValue( "prefs.stop_at_user_reply" ) ) ) {
+			scroller.setStopCondition( webDriverFactory.makeTweetPresentStopCondition( userReplyTweetIDs ) );
+		}
+
 		try {
 			replyPage = webDriverFactory.makeSnapshotUserPageIndividualTweetFromURL( webDriver,
 																						webDriverUtils,
@@ -328,6 +392,10 @@ public class SearchRunRepliesBuilder {
 																	webDriverUtils,
 																	InfiniteScrollingActivatorType.INDIVIDUAL );
 
+			//	the tweets above the user's reply are all that's used, and
+			//	they're on the page before any scrolling
+		scroller.setStopCondition( webDriverFactory.makeTweetPresentStopCondition( Collections.singleton( sourceTweet.getID() ) ) );
+
 		try {
 			userReplyTweetCollection = webDriverFactory.makeTweetCollectionFromURL( webDriver, webDriverUtils, scroller,
 																					url, numberOfReplyPagesToCheck, 0 );
@@ -357,7 +425,8 @@ public class SearchRunRepliesBuilder {
 			logger.info( bundle.getString( "srb_userreply_switched", sourceTweet.getSummary(), actualTweet.getSummary() ) );
 
 			ISnapshotUserPageIndividualTweet replyPage = getReplyPage( webDriver, webDriverUtils, actualTweet.getID(),
-																		actualTweet.getUser().getHandle(), user, numberOfReplyPagesToCheck );
+																		actualTweet.getUser().getHandle(), sourceTweet.getID(),
+																		user, numberOfReplyPagesToCheck );
 
 			return snapshotFactory.makeReplyThread( ReplyThreadType.INDIRECT,
 													sourceTweet,
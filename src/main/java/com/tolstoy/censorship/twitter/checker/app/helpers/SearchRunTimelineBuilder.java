@@ -17,7 +17,6 @@ import java.util.*;
 import java.sql.*;
 import java.time.Instant;
 import org.openqa.selenium.WebDriver;
-import org.openqa.selenium.Point;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import com.tolstoy.basic.api.storage.*;
@@ -49,17 +48,21 @@ public class SearchRunTimelineBuilder {
 	private IPreferencesFactory prefsFactory;
 	private IPreferences prefs;
 	private IWebDriverFactory webDriverFactory;
+	private WebDriverSessionManager webDriverSessionManager;
 	private ISearchRunFactory searchRunFactory;
 	private ISnapshotFactory snapshotFactory;
 	private ITweetFactory tweetFactory;
 	private IStatusMessageReceiver statusMessageReceiver;
 	private String handleToCheck;
+	private SearchRunCheckpointer<ISnapshotUserPageIndividualTweet> checkpointer;
+	private IncrementalRunPlanner incrementalRunPlanner;
 
 	public SearchRunTimelineBuilder( IResourceBundleWithFormatting bundle,
 						IStorage storage,
 						IPreferencesFactory prefsFactory,
 						IPreferences prefs,
 						IWebDriverFactory webDriverFactory,
+						WebDriverSessionManager webDriverSessionManager,
 						ISearchRunFactory searchRunFactory,
 						ISnapshotFactory snapshotFactory,
 						ITweetFactory tweetFactory,
@@ -70,6 +73,7 @@ public class SearchRunTimelineBuilder {
 		this.prefsFactory = prefsFactory;
 		this.prefs = prefs;
 		this.webDriverFactory = webDriverFactory;
+		this.webDriverSessionManager = webDriverSessionManager;
 		this.searchRunFactory = searchRunFactory;
 		this.snapshotFactory = snapshotFactory;
 		this.tweetFactory = tweetFactory;
@@ -78,17 +82,10 @@ public class SearchRunTimelineBuilder {
 	}
 
 	public ISearchRunTimeline buildSearchRunTimeline( int numberOfTimelinePagesToCheck, int numberOfReplyPagesToCheck, int maxReplies ) throws Exception {
-		WebDriver webDriver = null;
-		IWebDriverUtils webDriverUtils = null;
-		LoginToSite loginToSite = null;
-
-		if ( webDriverFactory == null ) {
-			throw new RuntimeException( bundle.getString( "exc_no_webdriverfactory" ) );
-		}
+		WebDriverSession session = null;
 
 		try {
-			webDriver = webDriverFactory.makeWebDriver();
-			webDriver.manage().window().setPosition( new Point( -5000, 0 ) );
+			session = webDriverSessionManager.acquire( statusMessageReceiver );
 		}
 		catch ( Exception e ) {
 			logger.error( "cannot create webDriver", e );
@@ -96,38 +93,32 @@ public class SearchRunTimelineBuilder {
 			throw e;
 		}
 
-		try {
-			webDriverUtils = webDriverFactory.makeWebDriverUtils( webDriver );
+		incrementalRunPlanner = new IncrementalRunPlanner( storage, prefs, ISearchRunTimeline.class, handleToCheck );
+		incrementalRunPlanner.plan();
 
-			String loginName = prefs.getValue( "prefs.testing_account_name_private" );
-			String loginPassword = prefs.getValue( "prefs.testing_account_password_private" );
+		checkpointer = new SearchRunCheckpointer<ISnapshotUserPageIndividualTweet>( storage, ISnapshotUserPageIndividualTweet.class, "timeline", handleToCheck,
+																numberOfTimelinePagesToCheck + "," + numberOfReplyPagesToCheck + "," +
+																maxReplies + "," + session.isLoggedIn() + "," +
+																incrementalRunPlanner.getSinceTweetID() );
 
-			if ( !Utils.isEmpty( loginName ) && !Utils.isEmpty( loginPassword ) ) {
-				loginToSite = new LoginToSite( loginName, loginPassword, prefs );
-				loginToSite.perform( webDriver, webDriverUtils );
-			}
+		try {
+			ISearchRunTimeline ret = buildSearchRunTimelineInternal( session.getWebDriver(), session.getWebDriverUtils(), numberOfTimelinePagesToCheck, numberOfReplyPagesToCheck, maxReplies );
 
-			ISearchRunTimeline ret = buildSearchRunTimelineInternal( webDriver, webDriverUtils, numberOfTimelinePagesToCheck, numberOfReplyPagesToCheck, maxReplies );
+			checkpointer.finish();
 
 			ret.setAttribute( "handle_to_check", handleToCheck );
-			ret.setAttribute( "loggedin", loginToSite != null ? "true" : "false" );
+			ret.setAttribute( "loggedin", session.isLoggedIn() ? "true" : "false" );
+			incrementalRunPlanner.setAttributes( ret );
 
 			return ret;
 		}
 		catch ( Exception e ) {
-			logger.error( "error logging in or building searchRun", e );
+			logger.error( "error building searchRun", e );
 			throw e;
 		}
 		finally {
-			if ( webDriver != null ) {
-				try {
-					webDriver.close();
-				}
-				catch ( Exception e ) {
-					logger.error( "cannot close webDriver", e );
-					statusMessageReceiver.addMessage( new StatusMessage( "cannot close webDriver", StatusMessageSeverity.ERROR ) );
-				}
-			}
+				//	keep the browser open for the next run
+			webDriverSessionManager.release( session );
 
 			logInfo( bundle.getString( "srb_done", handleToCheck ) );
 		}
@@ -148,6 +139,11 @@ public class SearchRunTimelineBuilder {
 																	webDriverUtils,
 																	InfiniteScrollingActivatorType.TIMELINE );
 
+		if ( incrementalRunPlanner.isIncremental() ) {
+			logInfo( bundle.getString( "srb_incremental", incrementalRunPlanner.getSinceTweetID() ) );
+			scroller.setStopCondition( webDriverFactory.makeReachedTweetStopCondition( incrementalRunPlanner.getSinceTweetID() ) );
+		}
+
 		ISnapshotUserPageTimeline timeline;
 		timeline = webDriverFactory.makeSnapshotUserPageTimelineFromURL( webDriver,
 																			webDriverUtils,
@@ -169,7 +165,7 @@ public class SearchRunTimelineBuilder {
 		}
 		else {
 			logInfo( bundle.getString( "srb_loaded_timeline", tweetCollection.getTweets().size() ) );
-			individualPages = getIndividualPages( webDriver, webDriverUtils, tweetCollection.getTweets(),
+			individualPages = getIndividualPages( webDriver, webDriverUtils, incrementalRunPlanner.filterNewTweets( tweetCollection.getTweets() ),
 													user, numberOfReplyPagesToCheck, maxReplies );
 		}
 
@@ -179,30 +175,66 @@ public class SearchRunTimelineBuilder {
 	}
 
 	protected Map<Long,ISnapshotUserPageIndividualTweet> getIndividualPages( WebDriver webDriver, IWebDriverUtils webDriverUtils,
-																				List<ITweet> tweets, ITweetUser user,
-																				int numberOfReplyPagesToCheck, int maxReplies )
+																				List<ITweet> tweets, final ITweetUser user,
+																				final int numberOfReplyPagesToCheck, int maxReplies )
 																				throws Exception {
-		Map<Long,ISnapshotUserPageIndividualTweet> individualPages = new HashMap<Long,ISnapshotUserPageIndividualTweet>();
-
-		String handle = user.getHandle();
+		List<ITweet> sourceTweets = new ArrayList<ITweet>();
 
 		for ( ITweet tweet : tweets ) {
 				//	if it's not an RT, etc.
 			if ( handleToCheck.equals( Utils.trimDefault( tweet.getUser().getHandle() ).toLowerCase() ) ) {
-				ISnapshotUserPageIndividualTweet individualPage = getIndividualPage( webDriver, webDriverUtils,
-																						tweet, user, numberOfReplyPagesToCheck );
+				sourceTweets.add( tweet );
+			}
+		}
 
-				if ( individualPage != null ) {
-					individualPages.put( tweet.getID(), individualPage );
-				}
+		Map<Long,ISnapshotUserPageIndividualTweet> ret = new HashMap<Long,ISnapshotUserPageIndividualTweet>();
+		List<ITweet> remainingTweets = new ArrayList<ITweet>();
 
-				if ( individualPages.size() >= maxReplies ) {
-					break;
-				}
+			//	use what an earlier, failed run already loaded
+		Map<Long,ISnapshotUserPageIndividualTweet> saved = checkpointer.begin();
+		for ( ITweet sourceTweet : sourceTweets ) {
+			ISnapshotUserPageIndividualTweet item = saved.get( sourceTweet.getID() );
+			if ( item != null && ret.size() < maxReplies ) {
+				ret.put( sourceTweet.getID(), item );
 			}
+			else {
+				remainingTweets.add( sourceTweet );
+			}
+		}
+
+		if ( ret.size() > 0 ) {
+			logInfo( bundle.getString( "srb_resuming", ret.size() ) );
 		}
 
-		return individualPages;
+		int needed = maxReplies - ret.size();
+		if ( needed < 1 || remainingTweets.isEmpty() ) {
+			return ret;
+		}
+
+		WebDriverPool webDriverPool = new WebDriverPool( bundle, webDriverSessionManager, statusMessageReceiver );
+
+		try {
+				//	no point in starting more browsers than there are pages to load
+			int numBrowsers = Math.min( Utils.parseIntDefault( prefs.getValue( "prefs.num_browsers" ), 1 ),
+										Math.min( remainingTweets.size(), needed ) );
+
+			webDriverPool.add( webDriver, webDriverUtils );
+			webDriverPool.addNew( numBrowsers - 1 );
+
+			ret.putAll( webDriverPool.run( remainingTweets, needed, new IWebDriverTask<ISnapshotUserPageIndividualTweet>() {
+				@Override
+				public ISnapshotUserPageIndividualTweet run( WebDriver webDriver, IWebDriverUtils webDriverUtils, ITweet sourceTweet ) throws Exception {
+					ISnapshotUserPageIndividualTweet item = getIndividualPage( webDriver, webDriverUtils, sourceTweet, user, numberOfReplyPagesToCheck );
+					checkpointer.save( sourceTweet.getID(), item );
+					return item;
+				}
+			}));
+
+			return ret;
+		}
+		finally {
+			webDriverPool.close();
+		}
 	}
 
 	protected ISnapshotUserPageIndividualTweet getIndividualPage( WebDriver webDriver, IWebDriverUtils webDriverUtils, ITweet sourceTweet,
@@ -0,0 +1,233 @@
+/*
+ * Copyright 2018 Chris Kelly
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.tolstoy.censorship.twitter.checker.app.helpers;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import com.tolstoy.basic.api.tweet.*;
+import com.tolstoy.basic.api.utils.*;
+import com.tolstoy.basic.api.statusmessage.*;
+import com.tolstoy.censorship.twitter.checker.api.webdriver.*;
+
+/**
+ * A set of WebDriver instances that run IWebDriverTask work items in
+ * parallel, one task per driver at a time.
+ *
+ * Drivers can be added from outside (those are not released by this class)
+ * or acquired from a WebDriverSessionManager, which hands back warm browsers
+ * that are already logged in when it can. Sessions acquired here are given
+ * back to the manager by close().
+ *
+ * A browser that stops responding is closed and dropped from the pool,
+ * and its task is run again on one of the others.
+ */
+public class WebDriverPool {
+	private static final Logger logger = LogManager.getLogger( WebDriverPool.class );
+
+	private static final int TAKE_POLL_MILLIS = 500;
+
+	private IResourceBundleWithFormatting bundle;
+	private WebDriverSessionManager webDriverSessionManager;
+	private IStatusMessageReceiver statusMessageReceiver;
+	private BlockingQueue<WebDriverSession> available;
+	private List<WebDriverSession> owned;
+	private AtomicInteger numSessions;
+
+	public WebDriverPool( IResourceBundleWithFormatting bundle,
+							WebDriverSessionManager webDriverSessionManager,
+							IStatusMessageReceiver statusMessageReceiver ) {
+		this.bundle = bundle;
+		this.webDriverSessionManager = webDriverSessionManager;
+		this.statusMessageReceiver = statusMessageReceiver;
+		this.available = new LinkedBlockingQueue<WebDriverSession>();
+		this.owned = new ArrayList<WebDriverSession>();
+		this.numSessions = new AtomicInteger( 0 );
+	}
+
+	/**
+	 * Add a driver that's already set up. It won't be released by close().
+	 */
+	public void add( WebDriver webDriver, IWebDriverUtils webDriverUtils ) {
+		numSessions.incrementAndGet();
+		available.add( new WebDriverSession( webDriver, webDriverUtils, "" ) );
+	}
+
+	/**
+	 * Acquire up to count more sessions. A session that can't be acquired
+	 * is skipped, so the pool might end up smaller than asked for.
+	 */
+	public void addNew( int count ) {
+		for ( int i = 0; i < count; i++ ) {
+			try {
+				WebDriverSession session = webDriverSessionManager.acquire( statusMessageReceiver );
+				synchronized ( owned ) {
+					owned.add( session );
+				}
+				numSessions.incrementAndGet();
+				available.add( session );
+			}
+			catch ( Exception e ) {
+				String s = bundle.getString( "wdp_cannot_add", e.getMessage() );
+				logger.error( s, e );
+				statusMessageReceiver.addMessage( new StatusMessage( s, StatusMessageSeverity.WARN ) );
+			}
+		}
+	}
+
+	public int size() {
+		return available.size();
+	}
+
+	/**
+	 * Run the task for each of the source tweets, in parallel on the drivers
+	 * in the pool, until max tasks have returned a result or there are no
+	 * more tweets. A task that throws is logged and treated like one that
+	 * returned null, unless it threw because its browser died: then the
+	 * browser is dropped and the task is run again on another one.
+	 *
+	 * The results are the same as running the tasks one at a time in order
+	 * and stopping after max results: tweets are handed out in batches of
+	 * the number of results still needed, and the results of each batch are
+	 * taken in order.
+	 *
+	 * @return a map from source tweet ID to result
+	 */
+	public <T> Map<Long,T> run( List<ITweet> sourceTweets, int max, final IWebDriverTask<T> task ) throws Exception {
+		Map<Long,T> ret = new HashMap<Long,T>();
+
+		if ( available.size() < 1 ) {
+			throw new IllegalStateException( "no drivers in the pool" );
+		}
+
+		ExecutorService executor = Executors.newFixedThreadPool( available.size() );
+
+		try {
+			int next = 0;
+
+			while ( ret.size() < max && next < sourceTweets.size() ) {
+				int batchSize = Math.min( max - ret.size(), sourceTweets.size() - next );
+				List<ITweet> batch = sourceTweets.subList( next, next + batchSize );
+				next += batchSize;
+
+				List<Future<T>> futures = new ArrayList<Future<T>>( batchSize );
+
+				for ( final ITweet sourceTweet : batch ) {
+					futures.add( executor.submit( new Callable<T>() {
+						@Override
+						public T call() throws Exception {
+							while ( true ) {
+								WebDriverSession session = takeSession();
+								boolean keep = true;
+
+								try {
+									return task.run( session.getWebDriver(), session.getWebDriverUtils(), sourceTweet );
+								}
+								catch ( WebDriverException e ) {
+									if ( webDriverSessionManager.isHealthy( session ) ) {
+										throw e;
+									}
+
+									keep = false;
+									drop( session, e );
+								}
+								finally {
+									if ( keep ) {
+										available.add( session );
+									}
+								}
+							}
+						}
+					}));
+				}
+
+				for ( int i = 0; i < batchSize; i++ ) {
+					try {
+						T result = futures.get( i ).get();
+						if ( result != null && ret.size() < max ) {
+							ret.put( batch.get( i ).getID(), result );
+						}
+					}
+					catch ( ExecutionException e ) {
+						logger.error( "task failed for tweet " + batch.get( i ).getID(), e.getCause() );
+					}
+				}
+			}
+		}
+		finally {
+			executor.shutdownNow();
+		}
+
+		return ret;
+	}
+
+	/**
+	 * Give the sessions that were acquired by this pool back to the manager.
+	 */
+	public void close() {
+		List<WebDriverSession> sessions;
+
+		synchronized ( owned ) {
+			sessions = new ArrayList<WebDriverSession>( owned );
+			owned.clear();
+		}
+
+		for ( WebDriverSession session : sessions ) {
+			available.remove( session );
+			webDriverSessionManager.release( session );
+		}
+	}
+
+	/**
+	 * Wait for a free session.
+	 * @throws IllegalStateException if every session has been dropped
+	 */
+	protected WebDriverSession takeSession() throws InterruptedException {
+		while ( true ) {
+			WebDriverSession session = available.poll( TAKE_POLL_MILLIS, TimeUnit.MILLISECONDS );
+			if ( session != null ) {
+				return session;
+			}
+
+			if ( numSessions.get() < 1 ) {
+				throw new IllegalStateException( "no drivers left in the pool" );
+			}
+		}
+	}
+
+	/**
+	 * Take a dead session out of the pool. Sessions acquired by this pool
+	 * are closed; ones that were added from outside are left alone.
+	 */
+	protected void drop( WebDriverSession session, WebDriverException e ) {
+		numSessions.decrementAndGet();
+
+		String s = bundle.getString( "wdp_dropped", e.getMessage() );
+		logger.error( s, e );
+		statusMessageReceiver.addMessage( new StatusMessage( s, StatusMessageSeverity.WARN ) );
+
+		boolean wasOwned;
+		synchronized ( owned ) {
+			wasOwned = owned.remove( session );
+		}
+
+		if ( wasOwned ) {
+			webDriverSessionManager.discard( session );
+		}
+	}
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright 2018 Chris Kelly
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.tolstoy.censorship.twitter.checker.app.helpers;
+
+import org.openqa.selenium.WebDriver;
+import com.tolstoy.basic.app.utils.Utils;
+import com.tolstoy.censorship.twitter.checker.api.webdriver.IWebDriverUtils;
+
+/**
+ * A browser handed out by WebDriverSessionManager, possibly logged in
+ * with the testing account.
+ */
+public class WebDriverSession {
+	private WebDriver webDriver;
+	private IWebDriverUtils webDriverUtils;
+	private String loginName;
+
+	WebDriverSession( WebDriver webDriver, IWebDriverUtils webDriverUtils, String loginName ) {
+		this.webDriver = webDriver;
+		this.webDriverUtils = webDriverUtils;
+		this.loginName = Utils.trimDefault( loginName );
+	}
+
+	public WebDriver getWebDriver() {
+		return webDriver;
+	}
+
+	public IWebDriverUtils getWebDriverUtils() {
+		return webDriverUtils;
+	}
+
+	/**
+	 * @return true if the testing account was used to log in
+	 */
+	public boolean isLoggedIn() {
+		return !Utils.isEmpty( loginName );
+	}
+
+	String getLoginName() {
+		return loginName;
+	}
+}
@@ -0,0 +1,311 @@
+/*
+ * Copyright 2018 Chris Kelly
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.tolstoy.censorship.twitter.checker.app.helpers;
+
+import java.util.*;
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.WebDriver;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import com.tolstoy.basic.api.storage.*;
+import com.tolstoy.basic.api.utils.*;
+import com.tolstoy.basic.api.statusmessage.*;
+import com.tolstoy.basic.app.utils.Utils;
+import com.tolstoy.censorship.twitter.checker.api.preferences.*;
+import com.tolstoy.censorship.twitter.checker.api.webdriver.*;
+import com.tolstoy.censorship.twitter.checker.app.storage.StorageTable;
+
+/**
+ * Keeps browsers open and logged in between search runs.
+ *
+ * acquire() hands out a warm session if there's a healthy one for the
+ * current testing account, otherwise it starts a new browser. A new browser
+ * first tries the cookies saved from an earlier login and only fills out
+ * the login form if those don't work. After a form login the cookies are
+ * saved to storage, so they survive an app restart.
+ *
+ * release() keeps the session for the next run. Up to prefs.num_browsers
+ * sessions are kept idle, unless setMaxIdleSessions() sets another limit.
+ * shutdown() closes everything and should be called when the app exits.
+ */
+public class WebDriverSessionManager {
+	private static final Logger logger = LogManager.getLogger( WebDriverSessionManager.class );
+
+	private static final int LOGIN_WAIT_MILLIS = 10000;
+	private static final int LOGIN_POLL_MILLIS = 250;
+
+	private IResourceBundleWithFormatting bundle;
+	private IPreferences prefs;
+	private IStorage storage;
+	private IWebDriverFactory webDriverFactory;
+	private Deque<WebDriverSession> idle;
+	private boolean shutdown;
+	private int maxIdleSessions;
+
+	public WebDriverSessionManager( IResourceBundleWithFormatting bundle,
+									IPreferences prefs,
+									IStorage storage,
+									IWebDriverFactory webDriverFactory ) {
+		this.bundle = bundle;
+		this.prefs = prefs;
+		this.storage = storage;
+		this.webDriverFactory = webDriverFactory;
+		this.idle = new ArrayDeque<WebDriverSession>();
+		this.shutdown = false;
+		this.maxIdleSessions = 0;
+	}
+
+	/**
+	 * @param maxIdleSessions how many sessions to keep open between runs,
+	 * or 0 to use prefs.num_browsers
+	 */
+	public void setMaxIdleSessions( int maxIdleSessions ) {
+		synchronized ( idle ) {
+			this.maxIdleSessions = maxIdleSessions;
+		}
+	}
+
+	public WebDriverSession acquire( IStatusMessageReceiver statusMessageReceiver ) throws Exception {
+		if ( webDriverFactory == null ) {
+			throw new RuntimeException( bundle.getString( "exc_no_webdriverfactory" ) );
+		}
+
+		String loginName = getLoginName();
+
+		while ( true ) {
+			WebDriverSession session;
+
+			synchronized ( idle ) {
+				session = idle.pollFirst();
+			}
+
+			if ( session == null ) {
+				break;
+			}
+
+				//	the account might have been changed in the preferences
+			if ( session.getLoginName().equals( loginName ) && isHealthy( session ) ) {
+				logger.info( "reusing browser session" );
+				return session;
+			}
+
+			closeSession( session );
+		}
+
+		return createSession( loginName, statusMessageReceiver );
+	}
+
+	public void release( WebDriverSession session ) {
+		if ( session == null ) {
+			return;
+		}
+
+		if ( isHealthy( session ) ) {
+			synchronized ( idle ) {
+				if ( !shutdown && idle.size() < getMaxIdleSessions() ) {
+					idle.addFirst( session );
+					return;
+				}
+			}
+		}
+
+		closeSession( session );
+	}
+
+	/**
+	 * Close a session that isn't usable any more, without keeping it.
+	 */
+	void discard( WebDriverSession session ) {
+		if ( session != null ) {
+			closeSession( session );
+		}
+	}
+
+	public void shutdown() {
+		List<WebDriverSession> sessions;
+
+		synchronized ( idle ) {
+			shutdown = true;
+			sessions = new ArrayList<WebDriverSession>( idle );
+			idle.clear();
+		}
+
+		for ( WebDriverSession session : sessions ) {
+			closeSession( session );
+		}
+	}
+
+	protected WebDriverSession createSession( String loginName, IStatusMessageReceiver statusMessageReceiver ) throws Exception {
+		WebDriver webDriver = webDriverFactory.makeWebDriver();
+
+		try {
+			IWebDriverUtils webDriverUtils = webDriverFactory.makeWebDriverUtils( webDriver );
+
+			if ( !Utils.isEmpty( loginName ) ) {
+				login( webDriver, webDriverUtils, loginName, statusMessageReceiver );
+			}
+
+			return new WebDriverSession( webDriver, webDriverUtils, loginName );
+		}
+		catch ( Exception e ) {
+			closeDriver( webDriver );
+			throw e;
+		}
+	}
+
+	protected void login( WebDriver webDriver, IWebDriverUtils webDriverUtils, String loginName,
+							IStatusMessageReceiver statusMessageReceiver ) {
+		if ( restoreCookies( webDriver, loginName ) ) {
+			logInfo( statusMessageReceiver, bundle.getString( "wdsm_login_cookies", loginName ) );
+			return;
+		}
+
+		LoginToSite loginToSite = new LoginToSite( loginName, prefs.getValue( "prefs.testing_account_password_private" ), prefs );
+		loginToSite.perform( webDriver, webDriverUtils );
+
+		if ( waitForLogin( webDriver ) ) {
+			saveCookies( webDriver, loginName );
+		}
+		else {
+			logWarn( statusMessageReceiver, bundle.getString( "wdsm_login_unconfirmed", loginName ) );
+		}
+	}
+
+	protected boolean restoreCookies( WebDriver webDriver, String loginName ) {
+		try {
+			WebSessionCookies stored = loadCookies( loginName );
+			if ( stored == null ) {
+				return false;
+			}
+
+			Set<Cookie> cookies = stored.getBrowserCookies();
+			if ( cookies.isEmpty() ) {
+				return false;
+			}
+
+				//	cookies can only be added for the domain of the current page
+			webDriver.get( prefs.getValue( "targetsite.login_url" ) );
+			webDriver.manage().deleteAllCookies();
+
+			for ( Cookie cookie : cookies ) {
+				try {
+					webDriver.manage().addCookie( cookie );
+				}
+				catch ( Exception e ) {
+					logger.info( "cannot restore cookie " + cookie.getName() + ": " + e.getMessage() );
+				}
+			}
+
+			webDriver.get( prefs.getValue( "targetsite.login_url" ) );
+
+			return LoginToSite.isLoggedIn( webDriver );
+		}
+		catch ( Exception e ) {
+			logger.error( "cannot restore cookies", e );
+			return false;
+		}
+	}
+
+	protected void saveCookies( WebDriver webDriver, String loginName ) {
+		try {
+			WebSessionCookies record = loadCookies( loginName );
+			if ( record == null ) {
+				record = new WebSessionCookies( loginName );
+			}
+
+			record.setBrowserCookies( webDriver.manage().getCookies() );
+
+			storage.saveRecord( StorageTable.WEBSESSION, record );
+		}
+		catch ( Exception e ) {
+			logger.error( "cannot save cookies", e );
+		}
+	}
+
+	protected WebSessionCookies loadCookies( String loginName ) throws Exception {
+		List<IStorable> list = storage.getRecords( StorageTable.WEBSESSION, WebSessionCookies.makeSearchKey( loginName ),
+													StorageOrdering.DESC, 1 );
+
+		if ( list == null || list.size() < 1 || !( list.get( 0 ) instanceof WebSessionCookies ) ) {
+			return null;
+		}
+
+		return (WebSessionCookies) list.get( 0 );
+	}
+
+	protected boolean waitForLogin( WebDriver webDriver ) {
+		for ( int waited = 0; waited < LOGIN_WAIT_MILLIS; waited += LOGIN_POLL_MILLIS ) {
+			if ( LoginToSite.isLoggedIn( webDriver ) ) {
+				return true;
+			}
+
+			Utils.delay( LOGIN_POLL_MILLIS );
+		}
+
+		return false;
+	}
+
+	protected boolean isHealthy( WebDriverSession session ) {
+		try {
+			session.getWebDriver().getWindowHandle();
+			return true;
+		}
+		catch ( Exception e ) {
+			logger.info( "browser session is no longer usable: " + e.getMessage() );
+			return false;
+		}
+	}
+
+	protected String getLoginName() {
+		String loginName = prefs.getValue( "prefs.testing_account_name_private" );
+		String loginPassword = prefs.getValue( "prefs.testing_account_password_private" );
+
+		if ( Utils.isEmpty( loginName ) || Utils.isEmpty( loginPassword ) ) {
+			return "";
+		}
+
+		return Utils.trimDefault( loginName );
+	}
+
+	protected int getMaxIdleSessions() {
+		if ( maxIdleSessions > 0 ) {
+			return maxIdleSessions;
+		}
+
+		return Math.max( 1, Utils.parseIntDefault( prefs.getValue( "prefs.num_browsers" ), 1 ) );
+	}
+
+	private void closeSession( WebDriverSession session ) {
+		closeDriver( session.getWebDriver() );
+	}
+
+	private void closeDriver( WebDriver webDriver ) {
+		try {
+			webDriver.close();
+		}
+		catch ( Exception e ) {
+			logger.error( "cannot close webDriver", e );
+		}
+	}
+
+	private void logInfo( IStatusMessageReceiver statusMessageReceiver, String s ) {
+		logger.info( s );
+		statusMessageReceiver.addMessage( new StatusMessage( s, StatusMessageSeverity.INFO ) );
+	}
+
+	private void logWarn( IStatusMessageReceiver statusMessageReceiver, String s ) {
+		logger.info( s );
+		statusMessageReceiver.addMessage( new StatusMessage( s, StatusMessageSeverity.WARN ) );
+	}
+}
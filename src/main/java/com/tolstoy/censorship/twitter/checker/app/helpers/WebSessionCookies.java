@@ -0,0 +1,145 @@
+/*
+ * Copyright 2018 Chris Kelly
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.tolstoy.censorship.twitter.checker.app.helpers;
+
+import java.util.*;
+import java.time.Instant;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.openqa.selenium.Cookie;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.tolstoy.basic.api.storage.IStorable;
+import com.tolstoy.basic.app.utils.Utils;
+
+/**
+ * The cookies from a logged-in browser session, stored so that a later
+ * session for the same account can skip the login form.
+ */
+@JsonIgnoreProperties(ignoreUnknown=true)
+class WebSessionCookies implements IStorable {
+	@JsonProperty
+	private long id;
+
+	@JsonProperty
+	private Instant createTime;
+
+	@JsonProperty
+	private Instant modifyTime;
+
+	@JsonProperty
+	private String loginName;
+
+	@JsonProperty
+	private List<Map<String,String>> cookies;
+
+	WebSessionCookies() {
+		this.id = 0;
+		this.createTime = this.modifyTime = Instant.now();
+		this.loginName = "";
+		this.cookies = new ArrayList<Map<String,String>>();
+	}
+
+	WebSessionCookies( String loginName ) {
+		this();
+		this.loginName = makeSearchKey( loginName );
+	}
+
+	static String makeSearchKey( String loginName ) {
+		return Utils.trimDefault( loginName ).toLowerCase();
+	}
+
+	/**
+	 * @return the stored cookies, leaving out any that have expired
+	 */
+	@JsonIgnore
+	Set<Cookie> getBrowserCookies() {
+		Set<Cookie> ret = new HashSet<Cookie>( cookies.size() );
+		long now = System.currentTimeMillis();
+
+		for ( Map<String,String> map : cookies ) {
+			long expiry = Utils.parseLongDefault( map.get( "expiry" ) );
+			if ( expiry != 0 && expiry < now ) {
+				continue;
+			}
+
+			ret.add( new Cookie( map.get( "name" ),
+									map.get( "value" ),
+									map.get( "domain" ),
+									map.get( "path" ),
+									expiry != 0 ? new Date( expiry ) : null,
+									Utils.isStringTrue( map.get( "secure" ) ),
+									Utils.isStringTrue( map.get( "httponly" ) ) ) );
+		}
+
+		return ret;
+	}
+
+	@JsonIgnore
+	void setBrowserCookies( Set<Cookie> cookieSet ) {
+		cookies = new ArrayList<Map<String,String>>( cookieSet.size() );
+
+		for ( Cookie cookie : cookieSet ) {
+			Map<String,String> map = new HashMap<String,String>();
+
+			map.put( "name", cookie.getName() );
+			map.put( "value", cookie.getValue() );
+			map.put( "domain", cookie.getDomain() );
+			map.put( "path", cookie.getPath() );
+			map.put( "expiry", cookie.getExpiry() != null ? "" + cookie.getExpiry().getTime() : "" );
+			map.put( "secure", "" + cookie.isSecure() );
+			map.put( "httponly", "" + cookie.isHttpOnly() );
+
+			cookies.add( map );
+		}
+
+		modifyTime = Instant.now();
+	}
+
+	@Override
+	public long getID() {
+		return id;
+	}
+
+	@Override
+	public void setID( long id ) {
+		this.id = id;
+	}
+
+	@Override
+	public Instant getCreateTime() {
+		return createTime;
+	}
+
+	@Override
+	public Instant getModifyTime() {
+		return modifyTime;
+	}
+
+	@Override
+	public String getSearchKey() {
+		return loginName;
+	}
+
+	@Override
+	public String toString() {
+		return new ToStringBuilder( this )
+		.append( "id", id )
+		.append( "createTime", createTime )
+		.append( "modifyTime", modifyTime )
+		.append( "loginName", loginName )
+		.append( "numCookies", cookies.size() )
+		.toString();
+	}
+}
@@ -40,7 +40,13 @@ import org.jtwig.JtwigTemplate;
 public class ReportWriterTimelineBasic {
 	private static final Logger logger = LogManager.getLogger( ReportWriterTimelineBasic.class );
 
-	private static final DateFormat filenameDateFormat = new SimpleDateFormat( "yyyy_MM_dd_hh_mm_ss" );
+		//	SimpleDateFormat isn't thread safe, and reports can be written at the same time
+	private static final ThreadLocal<DateFormat> filenameDateFormat = new ThreadLocal<DateFormat>() {
+		@Override
+		protected DateFormat initialValue() {
+			return new SimpleDateFormat( "yyyy_MM_dd_hh_mm_ss" );
+		}
+	};
 
 	private IResourceBundleWithFormatting bundle;
 	private IPreferences prefs;
@@ -87,7 +93,7 @@ public class ReportWriterTimelineBasic {
 			.with( "content", htmlItems );
 
 		filename = String.format( "report_%s_%s_%s.html", report.getSearchRun().getInitiatingUser().getHandle(),
-															filenameDateFormat.format( new Date() ),
+															filenameDateFormat.get().format( new Date() ),
 															( bLoggedIn ? "LI" : "NLI" ) );
 
 		FileOutputStream fos = null;
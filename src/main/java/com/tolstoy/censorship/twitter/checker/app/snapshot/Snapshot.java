@@ -21,6 +21,7 @@ import org.apache.logging.log4j.Logger;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.tolstoy.basic.api.tweet.TweetAttributeRetentionPolicy;
 import com.tolstoy.censorship.twitter.checker.api.snapshot.ISnapshot;
 
 @JsonIgnoreProperties(ignoreUnknown=true)
@@ -85,6 +86,11 @@ class Snapshot implements ISnapshot {
 		this.complete = complete;
 	}
 
+	@Override
+	public int applyAttributeRetention( TweetAttributeRetentionPolicy policy ) throws Exception {
+		return 0;
+	}
+
 	@Override
 	public String toString() {
 		return new ToStringBuilder( this )
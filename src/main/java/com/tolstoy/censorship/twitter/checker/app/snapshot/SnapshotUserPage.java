@@ -68,6 +68,11 @@ class SnapshotUserPage extends Snapshot implements ISnapshotUserPage {
 		tweetCollection.addTweet( tweet );
 	}
 
+	@Override
+	public int applyAttributeRetention( TweetAttributeRetentionPolicy policy ) throws Exception {
+		return tweetCollection != null ? tweetCollection.applyAttributeRetention( policy ) : 0;
+	}
+
 	@Override
 	public String toString() {
 		return new ToStringBuilder( this )
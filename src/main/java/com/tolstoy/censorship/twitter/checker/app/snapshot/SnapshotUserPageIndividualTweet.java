@@ -43,6 +43,9 @@ class SnapshotUserPageIndividualTweet extends SnapshotUserPage implements ISnaps
 	@JsonProperty
 	private int numReplies;
 
+	@JsonProperty
+	private boolean stoppedEarly;
+
 	SnapshotUserPageIndividualTweet() {
 		super( "", Instant.now() );
 	}
@@ -76,6 +79,11 @@ class SnapshotUserPageIndividualTweet extends SnapshotUserPage implements ISnaps
 		return numReplies;
 	}
 
+	@Override
+	public boolean getStoppedEarly() {
+		return stoppedEarly;
+	}
+
 	@Override
 	public void setIndividualTweet( ITweet individualTweet ) {
 		this.individualTweet = individualTweet;
@@ -100,4 +108,14 @@ class SnapshotUserPageIndividualTweet extends SnapshotUserPage implements ISnaps
 	public void setNumReplies( int numReplies ) {
 		this.numReplies = numReplies;
 	}
+
+	@Override
+	public void setStoppedEarly( boolean stoppedEarly ) {
+		this.stoppedEarly = stoppedEarly;
+	}
+
+	@Override
+	public int applyAttributeRetention( TweetAttributeRetentionPolicy policy ) throws Exception {
+		return super.applyAttributeRetention( policy ) + policy.apply( individualTweet );
+	}
 }
@@ -0,0 +1,414 @@
+/*
+ * Copyright 2018 Chris Kelly
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.tolstoy.censorship.twitter.checker.app.storage;
+
+import java.util.*;
+import java.sql.*;
+import java.time.Instant;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.commons.dbcp2.BasicDataSource;
+import com.tolstoy.basic.api.tweet.*;
+import com.tolstoy.basic.app.storage.StorageEmbeddedDerby;
+import com.tolstoy.censorship.twitter.checker.api.searchrun.*;
+import com.tolstoy.censorship.twitter.checker.api.snapshot.*;
+
+/**
+ * ISearchRunIndex using the same embedded Derby database as
+ * StorageEmbeddedDerby.
+ *
+ * The tweet table has one row per tweet, updated with the latest values
+ * each time the tweet is seen. The reply_observation table has one row
+ * per tweet per reply page per search run. Its quality column is the
+ * tweet's quality as it was in that run, where tweet.quality is only the
+ * latest; a user's reply that wasn't on its page gets a row with
+ * QUALITY_NOT_FOUND and a pageorder of 0.
+ *
+ * Several search runs can be indexed at the same time, and they can
+ * share tweets. Tweets are merged in ID order, so two runs lock the rows
+ * they share in the same order, and a merge that collides with another
+ * run's insert is tried again.
+ */
+public class SearchRunIndexEmbeddedDerby implements ISearchRunIndex {
+	private static final Logger logger = LogManager.getLogger( SearchRunIndexEmbeddedDerby.class );
+
+	private static final String[] TABLE_DEFINITIONS = {
+		"CREATE TABLE tweet( " +
+		" id BIGINT NOT NULL," +
+		" userid BIGINT," +
+		" handle VARCHAR(255)," +
+		" tweettime TIMESTAMP," +
+		" quality VARCHAR(32)," +
+		" replycount INT," +
+		" retweetcount INT," +
+		" favoritecount INT," +
+		" lastseen TIMESTAMP," +
+		" CONSTRAINT pktweet PRIMARY KEY (id) )",
+
+		"CREATE TABLE reply_observation( " +
+		" id BIGINT NOT NULL GENERATED ALWAYS AS IDENTITY (START WITH 1, INCREMENT BY 1)," +
+		" runid BIGINT NOT NULL," +
+		" runtime TIMESTAMP," +
+		" sourcetweetid BIGINT," +
+		" pagetweetid BIGINT," +
+		" tweetid BIGINT," +
+		" pageorder INT," +
+		" quality VARCHAR(32)," +
+		" CONSTRAINT pkreply_observation PRIMARY KEY (id) )",
+
+		"CREATE INDEX ixtweethandle ON tweet( handle, tweettime )",
+		"CREATE INDEX ixtweetuserid ON tweet( userid )",
+		"CREATE INDEX ixreply_observationtweetid ON reply_observation( tweetid, runid )",
+		"CREATE INDEX ixreply_observationrunid ON reply_observation( runid )",
+		"CREATE INDEX ixreply_observationsourcetweetid ON reply_observation( sourcetweetid )"
+	};
+
+		//	for tables made when the quality column was called status
+	private static final String RENAME_STATUS_COLUMN = "RENAME COLUMN reply_observation.status TO quality";
+	private static final String COLUMN_NOT_FOUND_SQLSTATE = "42X14";
+
+	private static final String MERGE_TWEET = "MERGE INTO tweet USING SYSIBM.SYSDUMMY1 ON tweet.id = ? " +
+												"WHEN MATCHED THEN UPDATE SET userid = ?, handle = ?, tweettime = ?, quality = ?, replycount = ?, " +
+												"retweetcount = ?, favoritecount = ?, lastseen = ? " +
+												"WHEN NOT MATCHED THEN INSERT( id, userid, handle, tweettime, quality, replycount, " +
+												"retweetcount, favoritecount, lastseen ) VALUES( ?, ?, ?, ?, ?, ?, ?, ?, ? )";
+	private static final String INSERT_OBSERVATION = "INSERT INTO reply_observation( runid, runtime, sourcetweetid, pagetweetid, " +
+														"tweetid, pageorder, quality ) VALUES( ?, ?, ?, ?, ?, ?, ? )";
+	private static final String SELECT_OBSERVATIONS = "SELECT runid, runtime, sourcetweetid, pagetweetid, tweetid, pageorder, quality " +
+														"FROM reply_observation ";
+
+	private BasicDataSource connectionPool;
+	private String connectionString;
+
+	public SearchRunIndexEmbeddedDerby( String connectionString ) throws Exception {
+		this.connectionString = connectionString;
+		this.connectionPool = null;
+	}
+
+	@Override
+	public void connect() throws Exception {
+		Class.forName( "org.apache.derby.jdbc.EmbeddedDriver" );
+
+		connectionPool = new BasicDataSource();
+
+		connectionPool.setDriverClassName( "org.apache.derby.jdbc.EmbeddedDriver" );
+		connectionPool.setUrl( connectionString );
+	}
+
+	@Override
+	public void ensureTables() throws Exception {
+		Connection connection = null;
+		Statement stmt = null;
+
+		try {
+			connection = getConnection();
+			stmt = connection.createStatement();
+
+			for ( String definition : TABLE_DEFINITIONS ) {
+				try {
+					stmt.clearWarnings();
+					stmt.executeUpdate( definition );
+
+						//	Derby warns instead of failing if the index already exists
+					SQLWarning warning = stmt.getWarnings();
+					if ( warning == null || !StorageEmbeddedDerby.DUPLICATE_INDEX_SQLSTATE.equals( warning.getSQLState() ) ) {
+						logger.info( "executed " + definition );
+					}
+				}
+				catch ( SQLException e ) {
+					String s = e.toString();
+					if ( s.indexOf( "exists" ) < 0 ) {
+						logger.error( "while executing " + definition, e );
+						throw e;
+					}
+				}
+			}
+
+			try {
+				stmt.executeUpdate( RENAME_STATUS_COLUMN );
+				logger.info( "executed " + RENAME_STATUS_COLUMN );
+			}
+			catch ( SQLException e ) {
+				if ( !COLUMN_NOT_FOUND_SQLSTATE.equals( e.getSQLState() ) ) {
+					logger.error( "while executing " + RENAME_STATUS_COLUMN, e );
+					throw e;
+				}
+			}
+		}
+		finally {
+			if ( stmt != null ) {
+				stmt.close();
+			}
+			if ( connection != null ) {
+				connection.close();
+			}
+		}
+	}
+
+	@Override
+	public void indexSearchRun( ISearchRun searchRun ) throws Exception {
+		if ( searchRun.getID() == 0 ) {
+			throw new IllegalArgumentException( "search run has not been saved" );
+		}
+
+		Map<Long,ITweet> tweets = new TreeMap<Long,ITweet>();
+		List<SearchRunTweetObservation> observations = new ArrayList<SearchRunTweetObservation>();
+
+		if ( searchRun instanceof ISearchRunReplies ) {
+			collectReplies( (ISearchRunReplies) searchRun, tweets, observations );
+		}
+		else if ( searchRun instanceof ISearchRunTimeline ) {
+			collectTimeline( (ISearchRunTimeline) searchRun, tweets, observations );
+		}
+		else {
+			logger.info( "not indexing unknown search run type " + searchRun.getClass().getName() );
+			return;
+		}
+
+		Connection connection = null;
+		PreparedStatement delete = null;
+		PreparedStatement mergeTweet = null;
+		PreparedStatement insertObservation = null;
+
+		try {
+			connection = getConnection();
+			connection.setAutoCommit( false );
+
+			delete = connection.prepareStatement( "DELETE FROM reply_observation WHERE runid = ?" );
+			delete.setLong( 1, searchRun.getID() );
+			delete.executeUpdate();
+
+			Timestamp lastSeen = instantToTimestamp( searchRun.getStartTime() );
+
+			mergeTweet = connection.prepareStatement( MERGE_TWEET );
+
+			for ( ITweet tweet : tweets.values() ) {
+				mergeTweet( mergeTweet, tweet, lastSeen );
+			}
+
+			insertObservation = connection.prepareStatement( INSERT_OBSERVATION );
+
+			for ( SearchRunTweetObservation observation : observations ) {
+				insertObservation.setLong( 1, observation.getSearchRunID() );
+				insertObservation.setTimestamp( 2, lastSeen );
+				insertObservation.setLong( 3, observation.getSourceTweetID() );
+				insertObservation.setLong( 4, observation.getPageTweetID() );
+				insertObservation.setLong( 5, observation.getTweetID() );
+				insertObservation.setInt( 6, observation.getPageOrder() );
+				insertObservation.setString( 7, observation.getQuality() );
+				insertObservation.addBatch();
+			}
+
+			insertObservation.executeBatch();
+
+			connection.commit();
+
+			logger.info( "indexed search run " + searchRun.getID() + ": " + tweets.size() + " tweets, " + observations.size() + " observations" );
+		}
+		catch ( Exception e ) {
+			if ( connection != null ) {
+				try {
+					connection.rollback();
+				}
+				catch ( Exception e2 ) {
+					logger.error( "could not roll back index of search run " + searchRun.getID(), e2 );
+				}
+			}
+
+			throw e;
+		}
+		finally {
+			if ( delete != null ) {
+				delete.close();
+			}
+			if ( mergeTweet != null ) {
+				mergeTweet.close();
+			}
+			if ( insertObservation != null ) {
+				insertObservation.close();
+			}
+			if ( connection != null ) {
+				connection.setAutoCommit( true );
+				connection.close();
+			}
+		}
+	}
+
+	@Override
+	public List<ISearchRunTweetObservation> getObservationsOfTweet( long tweetID ) throws Exception {
+		return getObservations( SELECT_OBSERVATIONS + "WHERE tweetid = ? ORDER BY runid DESC, pageorder ASC", tweetID );
+	}
+
+	@Override
+	public List<ISearchRunTweetObservation> getObservationsInSearchRun( long searchRunID ) throws Exception {
+		return getObservations( SELECT_OBSERVATIONS + "WHERE runid = ? ORDER BY sourcetweetid ASC, pageorder ASC", searchRunID );
+	}
+
+	protected List<ISearchRunTweetObservation> getObservations( String query, long id ) throws Exception {
+		Connection connection = null;
+		PreparedStatement ps = null;
+		ResultSet rs = null;
+		List<ISearchRunTweetObservation> ret = new ArrayList<ISearchRunTweetObservation>();
+
+		try {
+			connection = getConnection();
+			ps = connection.prepareStatement( query );
+			ps.setLong( 1, id );
+
+			rs = ps.executeQuery();
+
+			while ( rs.next() ) {
+				Timestamp runTime = rs.getTimestamp( "runtime" );
+
+				ret.add( new SearchRunTweetObservation( rs.getLong( "runid" ),
+														runTime != null ? runTime.toInstant() : null,
+														rs.getLong( "sourcetweetid" ),
+														rs.getLong( "pagetweetid" ),
+														rs.getLong( "tweetid" ),
+														rs.getInt( "pageorder" ),
+														rs.getString( "quality" ) ) );
+			}
+		}
+		finally {
+			if ( rs != null ) {
+				rs.close();
+			}
+			if ( ps != null ) {
+				ps.close();
+			}
+			if ( connection != null ) {
+				connection.close();
+			}
+		}
+
+		return ret;
+	}
+
+	protected void collectReplies( ISearchRunReplies searchRun, Map<Long,ITweet> tweets, List<SearchRunTweetObservation> observations ) {
+		addTweets( searchRun.getTimeline(), tweets );
+
+		if ( searchRun.getReplies() == null ) {
+			return;
+		}
+
+		for ( Map.Entry<Long,IReplyThread> entry : searchRun.getReplies().entrySet() ) {
+			IReplyThread replyThread = entry.getValue();
+			if ( replyThread == null || replyThread.getReplyPage() == null ) {
+				continue;
+			}
+
+			long pageTweetID = replyThread.getRepliedToTweet() != null ? replyThread.getRepliedToTweet().getID() : replyThread.getReplyPage().getTweetID();
+
+			boolean found = addPage( searchRun, entry.getKey(), pageTweetID, replyThread.getReplyPage(), tweets, observations );
+
+				//	the user's reply not being on the page is what's being looked for
+			if ( !found ) {
+				observations.add( new SearchRunTweetObservation( searchRun.getID(), searchRun.getStartTime(), entry.getKey(), pageTweetID,
+																	entry.getKey(), 0, ISearchRunTweetObservation.QUALITY_NOT_FOUND ) );
+			}
+		}
+	}
+
+	protected void collectTimeline( ISearchRunTimeline searchRun, Map<Long,ITweet> tweets, List<SearchRunTweetObservation> observations ) {
+		addTweets( searchRun.getTimeline(), tweets );
+
+		if ( searchRun.getIndividualPages() == null ) {
+			return;
+		}
+
+		for ( Map.Entry<Long,ISnapshotUserPageIndividualTweet> entry : searchRun.getIndividualPages().entrySet() ) {
+			if ( entry.getValue() != null ) {
+				addPage( searchRun, entry.getKey(), entry.getKey(), entry.getValue(), tweets, observations );
+			}
+		}
+	}
+
+	/**
+	 * @return true if the source tweet is on the page
+	 */
+	protected boolean addPage( ISearchRun searchRun, long sourceTweetID, long pageTweetID, ISnapshotUserPage page,
+								Map<Long,ITweet> tweets, List<SearchRunTweetObservation> observations ) {
+		boolean found = false;
+
+		if ( page.getTweetCollection() == null || page.getTweetCollection().getTweets() == null ) {
+			return found;
+		}
+
+		int pageOrder = 0;
+		for ( ITweet tweet : page.getTweetCollection().getTweets() ) {
+			pageOrder++;
+
+			tweets.put( tweet.getID(), tweet );
+
+			observations.add( new SearchRunTweetObservation( searchRun.getID(), searchRun.getStartTime(), sourceTweetID, pageTweetID,
+																tweet.getID(), pageOrder, getQualityKey( tweet ) ) );
+
+			if ( tweet.getID() == sourceTweetID ) {
+				found = true;
+			}
+		}
+
+		return found;
+	}
+
+	protected void addTweets( ISnapshotUserPage page, Map<Long,ITweet> tweets ) {
+		if ( page == null || page.getTweetCollection() == null || page.getTweetCollection().getTweets() == null ) {
+			return;
+		}
+
+		for ( ITweet tweet : page.getTweetCollection().getTweets() ) {
+			tweets.put( tweet.getID(), tweet );
+		}
+	}
+
+	protected void mergeTweet( PreparedStatement ps, ITweet tweet, Timestamp lastSeen ) throws Exception {
+		ps.setLong( 1, tweet.getID() );
+		setTweetValues( ps, 2, tweet, lastSeen );
+		ps.setLong( 10, tweet.getID() );
+		setTweetValues( ps, 11, tweet, lastSeen );
+
+		StorageEmbeddedDerby.executeMerge( ps );
+	}
+
+	protected void setTweetValues( PreparedStatement ps, int first, ITweet tweet, Timestamp lastSeen ) throws Exception {
+		ITweetUser user = tweet.getUser();
+		long time = tweet.getTime();
+
+		ps.setLong( first, user != null ? user.getID() : 0 );
+		ps.setString( first + 1, user != null ? user.getHandle() : null );
+		ps.setTimestamp( first + 2, time != 0 ? Timestamp.from( Instant.ofEpochSecond( time ) ) : null );
+		ps.setString( first + 3, getQualityKey( tweet ) );
+		ps.setInt( first + 4, tweet.getReplyCount() );
+		ps.setInt( first + 5, tweet.getRetweetCount() );
+		ps.setInt( first + 6, tweet.getFavoriteCount() );
+		ps.setTimestamp( first + 7, lastSeen );
+	}
+
+	protected String getQualityKey( ITweet tweet ) {
+		TweetSupposedQuality quality = tweet.getSupposedQuality();
+		return quality != null ? quality.getKey() : TweetSupposedQuality.UNKNOWN.getKey();
+	}
+
+	protected Connection getConnection() throws Exception {
+		if ( connectionPool == null ) {
+			throw new RuntimeException( "Not connected to the database" );
+		}
+
+		return connectionPool.getConnection();
+	}
+
+	protected Timestamp instantToTimestamp( Instant inst ) {
+		return inst != null ? Timestamp.from( inst ) : Timestamp.from( Instant.now() );
+	}
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2018 Chris Kelly
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.tolstoy.censorship.twitter.checker.app.storage;
+
+import java.time.Instant;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import com.tolstoy.censorship.twitter.checker.api.searchrun.ISearchRunTweetObservation;
+
+class SearchRunTweetObservation implements ISearchRunTweetObservation {
+	private long searchRunID;
+	private Instant searchRunTime;
+	private long sourceTweetID;
+	private long pageTweetID;
+	private long tweetID;
+	private int pageOrder;
+	private String quality;
+
+	SearchRunTweetObservation( long searchRunID, Instant searchRunTime, long sourceTweetID, long pageTweetID,
+								long tweetID, int pageOrder, String quality ) {
+		this.searchRunID = searchRunID;
+		this.searchRunTime = searchRunTime;
+		this.sourceTweetID = sourceTweetID;
+		this.pageTweetID = pageTweetID;
+		this.tweetID = tweetID;
+		this.pageOrder = pageOrder;
+		this.quality = quality;
+	}
+
+	@Override
+	public long getSearchRunID() {
+		return searchRunID;
+	}
+
+	@Override
+	public Instant getSearchRunTime() {
+		return searchRunTime;
+	}
+
+	@Override
+	public long getSourceTweetID() {
+		return sourceTweetID;
+	}
+
+	@Override
+	public long getPageTweetID() {
+		return pageTweetID;
+	}
+
+	@Override
+	public long getTweetID() {
+		return tweetID;
+	}
+
+	@Override
+	public int getPageOrder() {
+		return pageOrder;
+	}
+
+	@Override
+	public String getQuality() {
+		return quality;
+	}
+
+	@Override
+	public String toString() {
+		return new ToStringBuilder( this )
+		.append( "searchRunID", searchRunID )
+		.append( "searchRunTime", searchRunTime )
+		.append( "sourceTweetID", sourceTweetID )
+		.append( "pageTweetID", pageTweetID )
+		.append( "tweetID", tweetID )
+		.append( "pageOrder", pageOrder )
+		.append( "quality", quality )
+		.toString();
+	}
+}
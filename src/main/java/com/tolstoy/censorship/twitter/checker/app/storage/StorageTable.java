@@ -20,7 +20,9 @@ import com.tolstoy.basic.api.storage.IStorageTable;
 
 public enum StorageTable implements IStorageTable {
 	PREFS( "preferences" ),
-	SEARCHRUN( "searchrun" );
+	SEARCHRUN( "searchrun" ),
+	WEBSESSION( "websession" ),
+	CHECKPOINT( "checkpoint" );
 
 	private String tablename;
 
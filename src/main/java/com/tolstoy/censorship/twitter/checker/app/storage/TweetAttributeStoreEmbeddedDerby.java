@@ -0,0 +1,234 @@
+/*
+ * Copyright 2018 Chris Kelly
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.tolstoy.censorship.twitter.checker.app.storage;
+
+import java.util.*;
+import java.io.InputStream;
+import java.sql.*;
+import java.time.Instant;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.commons.dbcp2.BasicDataSource;
+import com.tolstoy.basic.api.tweet.ITweetAttributeStore;
+import com.tolstoy.basic.app.storage.StorageEmbeddedDerby;
+import com.tolstoy.basic.app.storage.StoragePayloadCodec;
+
+/**
+ * ITweetAttributeStore using the same embedded Derby database as
+ * StorageEmbeddedDerby. Each tweet's attributes are stored as one row,
+ * in the same payload format as StorageEmbeddedDerby's records.
+ *
+ * Reply pages in the same conversation share tweets, and they're stored
+ * from several browser threads at once, so rows are merged in ID order
+ * rather than updated or inserted.
+ *
+ * Unlike the search run index, this can't be rebuilt from the stored
+ * search runs, since the attributes aren't in them anymore.
+ *
+ * Rows record when they were last stored, so that old ones can be
+ * deleted with deleteAttributesModifiedBefore().
+ */
+public class TweetAttributeStoreEmbeddedDerby implements ITweetAttributeStore {
+	private static final Logger logger = LogManager.getLogger( TweetAttributeStoreEmbeddedDerby.class );
+
+	private static final String TABLE_DEFINITION = "CREATE TABLE tweet_attributes( " +
+													" id BIGINT NOT NULL," +
+													" modified TIMESTAMP," +
+													" attributes BLOB," +
+													" CONSTRAINT pktweet_attributes PRIMARY KEY (id) )";
+
+		//	for tables made before the modified column was added
+	private static final String ADD_MODIFIED_COLUMN = "ALTER TABLE tweet_attributes ADD COLUMN modified TIMESTAMP";
+
+	private static final String MERGE_ATTRIBUTES = "MERGE INTO tweet_attributes USING SYSIBM.SYSDUMMY1 ON tweet_attributes.id = ? " +
+													"WHEN MATCHED THEN UPDATE SET modified = CURRENT_TIMESTAMP, attributes = ? " +
+													"WHEN NOT MATCHED THEN INSERT( id, modified, attributes ) VALUES( ?, CURRENT_TIMESTAMP, ? )";
+	private static final String SELECT_ATTRIBUTES = "SELECT attributes FROM tweet_attributes WHERE id = ?";
+	private static final String DELETE_ATTRIBUTES_BEFORE = "DELETE FROM tweet_attributes WHERE modified IS NULL OR modified < ?";
+
+	private BasicDataSource connectionPool;
+	private String connectionString;
+
+	public TweetAttributeStoreEmbeddedDerby( String connectionString ) throws Exception {
+		this.connectionString = connectionString;
+		this.connectionPool = null;
+	}
+
+	public void connect() throws Exception {
+		Class.forName( "org.apache.derby.jdbc.EmbeddedDriver" );
+
+		connectionPool = new BasicDataSource();
+
+		connectionPool.setDriverClassName( "org.apache.derby.jdbc.EmbeddedDriver" );
+		connectionPool.setUrl( connectionString );
+	}
+
+	public void ensureTables() throws Exception {
+		executeDefinition( TABLE_DEFINITION );
+		executeDefinition( ADD_MODIFIED_COLUMN );
+	}
+
+	@Override
+	public void storeAttributes( Map<Long,Map<String,String>> attributesByTweetID ) throws Exception {
+		Connection connection = null;
+		PreparedStatement merge = null;
+
+		try {
+			connection = getConnection();
+			connection.setAutoCommit( false );
+
+			merge = connection.prepareStatement( MERGE_ATTRIBUTES );
+
+				//	in ID order, so that two threads lock the rows they share in the same order
+			for ( Map.Entry<Long,Map<String,String>> entry : new TreeMap<Long,Map<String,String>>( attributesByTweetID ).entrySet() ) {
+				byte[] payload = StoragePayloadCodec.encode( entry.getValue() );
+
+				merge.setLong( 1, entry.getKey() );
+				merge.setBytes( 2, payload );
+				merge.setLong( 3, entry.getKey() );
+				merge.setBytes( 4, payload );
+
+				StorageEmbeddedDerby.executeMerge( merge );
+			}
+
+			connection.commit();
+		}
+		catch ( Exception e ) {
+			if ( connection != null ) {
+				try {
+					connection.rollback();
+				}
+				catch ( Exception e2 ) {
+					logger.error( "could not roll back storing tweet attributes", e2 );
+				}
+			}
+
+			throw e;
+		}
+		finally {
+			if ( merge != null ) {
+				merge.close();
+			}
+			if ( connection != null ) {
+				connection.setAutoCommit( true );
+				connection.close();
+			}
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public Map<String,String> loadAttributes( long tweetID ) throws Exception {
+		Connection connection = null;
+		PreparedStatement ps = null;
+		ResultSet rs = null;
+
+		try {
+			connection = getConnection();
+			ps = connection.prepareStatement( SELECT_ATTRIBUTES );
+			ps.setLong( 1, tweetID );
+
+			rs = ps.executeQuery();
+
+			if ( !rs.next() ) {
+				return new HashMap<String,String>();
+			}
+
+			InputStream inputStream = rs.getBinaryStream( "attributes" );
+			try {
+				return (Map<String,String>) StoragePayloadCodec.decode( inputStream );
+			}
+			finally {
+				inputStream.close();
+			}
+		}
+		finally {
+			if ( rs != null ) {
+				rs.close();
+			}
+			if ( ps != null ) {
+				ps.close();
+			}
+			if ( connection != null ) {
+				connection.close();
+			}
+		}
+	}
+
+	@Override
+	public int deleteAttributesModifiedBefore( Instant cutoff ) throws Exception {
+		Connection connection = null;
+		PreparedStatement ps = null;
+
+		try {
+			connection = getConnection();
+			ps = connection.prepareStatement( DELETE_ATTRIBUTES_BEFORE );
+			ps.setTimestamp( 1, Timestamp.from( cutoff ) );
+
+			int ret = ps.executeUpdate();
+
+			logger.info( "deleted the attributes of " + ret + " tweets" );
+
+			return ret;
+		}
+		finally {
+			if ( ps != null ) {
+				ps.close();
+			}
+			if ( connection != null ) {
+				connection.close();
+			}
+		}
+	}
+
+	/**
+	 * Run a table definition, ignoring the error if it was already run.
+	 */
+	protected void executeDefinition( String definition ) throws Exception {
+		Connection connection = null;
+		Statement stmt = null;
+
+		try {
+			connection = getConnection();
+			stmt = connection.createStatement();
+
+			stmt.executeUpdate( definition );
+
+			logger.info( "executed " + definition );
+		}
+		catch ( SQLException e ) {
+			String s = e.toString();
+			if ( s.indexOf( "exists" ) < 0 ) {
+				logger.error( "while executing " + definition, e );
+				throw e;
+			}
+		}
+		finally {
+			if ( stmt != null ) {
+				stmt.close();
+			}
+			if ( connection != null ) {
+				connection.close();
+			}
+		}
+	}
+
+	protected Connection getConnection() throws Exception {
+		if ( connectionPool == null ) {
+			throw new RuntimeException( "Not connected to the database" );
+		}
+
+		return connectionPool.getConnection();
+	}
+}
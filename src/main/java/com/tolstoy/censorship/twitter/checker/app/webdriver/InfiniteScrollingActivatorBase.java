@@ -27,15 +27,24 @@ abstract class InfiniteScrollingActivatorBase implements IInfiniteScrollingActiv
 
 	private static final int MAX_LIMIT = 1000;
 	private static final int DELAY_PER_SCREEN_MILLIS = 3000;
+	private static final int MIN_HEIGHT_CHANGE = 10;
 
 	private WebDriver driver;
 	private IWebDriverUtils driverutils;
+	private PageReadyWaiter waiter;
 	private boolean complete;
+	private boolean stopped;
+	private IScrollStopCondition stopCondition;
+	private IScrollStepListener stepListener;
 
 	InfiniteScrollingActivatorBase( WebDriver driver, IWebDriverUtils driverutils ) {
 		this.driver = driver;
 		this.driverutils = driverutils;
+		this.waiter = new PageReadyWaiter( driver );
 		this.complete = false;
+		this.stopped = false;
+		this.stopCondition = null;
+		this.stepListener = null;
 	}
 
 	protected WebDriver getDriver() {
@@ -54,6 +63,21 @@ abstract class InfiniteScrollingActivatorBase implements IInfiniteScrollingActiv
 		return complete;
 	}
 
+	@Override
+	public void setStopCondition( IScrollStopCondition stopCondition ) {
+		this.stopCondition = stopCondition;
+	}
+
+	@Override
+	public boolean getStopped() {
+		return stopped;
+	}
+
+	@Override
+	public void setStepListener( IScrollStepListener stepListener ) {
+		this.stepListener = stepListener;
+	}
+
 	@Override
 	public void activate( int max ) {
 		Actions actions;
@@ -66,6 +90,12 @@ abstract class InfiniteScrollingActivatorBase implements IInfiniteScrollingActiv
 		int tempHeight;
 
 		while ( max >= 0 && max < MAX_LIMIT ) {
+			if ( stopCondition != null && stopCondition.isSatisfied( driver ) ) {
+				logger.info( "stop condition satisfied: " + stopCondition );
+				stopped = true;
+				break;
+			}
+
 			try {
 				actions = new Actions( driver );
 				actions.sendKeys( element, Keys.PAGE_DOWN );
@@ -84,11 +114,16 @@ abstract class InfiniteScrollingActivatorBase implements IInfiniteScrollingActiv
 				logger.info( "can't send page down" );
 			}
 
-			Utils.delay( DELAY_PER_SCREEN_MILLIS );
+				//	stops early once the new screen has loaded
+			waiter.waitForHeightChange( getHeightScript(), curHeight, MIN_HEIGHT_CHANGE, DELAY_PER_SCREEN_MILLIS );
+
+			if ( stepListener != null ) {
+				stepListener.screenLoaded( driver );
+			}
 
 			tempHeight = getOverlayHeight( driver, getHeightScript() );
 			logger.info( "curHeight=" + curHeight + ", tempHeight=" + tempHeight );
-			if ( Math.abs( tempHeight - curHeight ) < 10 ) {
+			if ( Math.abs( tempHeight - curHeight ) < MIN_HEIGHT_CHANGE ) {
 				logger.info( "heights similar, setting complete true and breaking" );
 				complete = true;
 				break;
@@ -0,0 +1,121 @@
+/*
+ * Copyright 2018 Chris Kelly
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.tolstoy.censorship.twitter.checker.app.webdriver;
+
+import java.util.concurrent.TimeUnit;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.*;
+import org.openqa.selenium.support.ui.*;
+import com.tolstoy.basic.app.utils.Utils;
+
+/**
+ * Waits for the page to reach a given state instead of sleeping for a
+ * fixed time. Each wait polls until its condition is met or until the
+ * given maximum has passed, whichever comes first. The maximums are the
+ * fixed delays that were used before.
+ *
+ * "Ready" also requires that the document has loaded and that there
+ * are no jQuery requests in flight.
+ */
+class PageReadyWaiter {
+	private static final Logger logger = LogManager.getLogger( PageReadyWaiter.class );
+
+	private static final int POLL_INTERVAL_MILLIS = 250;
+
+	private static final String SCRIPT_IDLE = "return document.readyState === 'complete' && " +
+												"( typeof jQuery === 'undefined' || !jQuery.active );";
+	private static final String SCRIPT_TWEET_COUNT = "return document.querySelectorAll( '.tweet' ).length;";
+	private static final String SCRIPT_ERROR_PAGE = "return document.getElementsByClassName( 'errorpage-body-content' ).length > 0;";
+
+	private WebDriver driver;
+
+	PageReadyWaiter( WebDriver driver ) {
+		this.driver = driver;
+	}
+
+	/**
+	 * Wait until the page has tweets or is an error page.
+	 * @return true if that happened before maxMillis
+	 */
+	boolean waitForTweetsOrError( int maxMillis ) {
+		return waitFor( "tweets or error page", maxMillis, new ExpectedCondition<Boolean>() {
+			@Override
+			public Boolean apply( WebDriver driver ) {
+				return isIdle() && ( getTweetCount() > 0 || Boolean.TRUE.equals( executeScript( SCRIPT_ERROR_PAGE ) ) );
+			}
+		});
+	}
+
+	/**
+	 * Wait until there are more tweets on the page than previousCount.
+	 * @return true if that happened before maxMillis
+	 */
+	boolean waitForNewTweets( final int previousCount, int maxMillis ) {
+		return waitFor( "more than " + previousCount + " tweets", maxMillis, new ExpectedCondition<Boolean>() {
+			@Override
+			public Boolean apply( WebDriver driver ) {
+				return isIdle() && getTweetCount() > previousCount;
+			}
+		});
+	}
+
+	/**
+	 * Wait until the height returned by heightScript differs from
+	 * previousHeight by at least minChange.
+	 * @return true if that happened before maxMillis
+	 */
+	boolean waitForHeightChange( final String heightScript, final int previousHeight, final int minChange, int maxMillis ) {
+		return waitFor( "height change from " + previousHeight, maxMillis, new ExpectedCondition<Boolean>() {
+			@Override
+			public Boolean apply( WebDriver driver ) {
+				return isIdle() &&
+						Math.abs( Utils.numberObjectToInteger( executeScript( heightScript ) ) - previousHeight ) >= minChange;
+			}
+		});
+	}
+
+	int getTweetCount() {
+		return Utils.numberObjectToInteger( executeScript( SCRIPT_TWEET_COUNT ) );
+	}
+
+	boolean isIdle() {
+		return Boolean.TRUE.equals( executeScript( SCRIPT_IDLE ) );
+	}
+
+	private boolean waitFor( String description, int maxMillis, ExpectedCondition<Boolean> condition ) {
+		long start = System.currentTimeMillis();
+
+		try {
+			new FluentWait<WebDriver>( driver )
+				.withTimeout( maxMillis, TimeUnit.MILLISECONDS )
+				.pollingEvery( POLL_INTERVAL_MILLIS, TimeUnit.MILLISECONDS )
+				.ignoring( WebDriverException.class )
+				.until( condition );
+
+			logger.info( "waited " + ( System.currentTimeMillis() - start ) + "ms for " + description );
+
+			return true;
+		}
+		catch ( TimeoutException e ) {
+			logger.info( "gave up after " + maxMillis + "ms waiting for " + description );
+
+			return false;
+		}
+	}
+
+	private Object executeScript( String script ) {
+		return ( (JavascriptExecutor) driver ).executeScript( script );
+	}
+}
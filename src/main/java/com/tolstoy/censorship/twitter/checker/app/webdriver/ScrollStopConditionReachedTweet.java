@@ -0,0 +1,57 @@
+/*
+ * Copyright 2018 Chris Kelly
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.tolstoy.censorship.twitter.checker.app.webdriver;
+
+import org.openqa.selenium.*;
+import com.tolstoy.basic.app.utils.Utils;
+import com.tolstoy.censorship.twitter.checker.api.webdriver.*;
+
+/**
+ * Satisfied once a timeline has been scrolled back to the given tweet ID,
+ * i.e., the last item on the page is that tweet or an older one.
+ *
+ * The last item is used rather than any item because a pinned tweet at
+ * the top can be old. For a retweet the retweet's ID is used, since
+ * that's what determines where it is in the timeline. Items that have
+ * been extracted and trimmed keep those attributes.
+ */
+class ScrollStopConditionReachedTweet implements IScrollStopCondition {
+	private static final String SCRIPT = "var items = document.querySelectorAll( '.tweet, [data-extracted-tweet-id]' ); " +
+		"if ( !items.length ) { return ''; } " +
+		"var last = items[ items.length - 1 ]; " +
+		"return last.getAttribute( 'data-retweet-id' ) || last.getAttribute( 'data-tweet-id' ) || '';";
+
+	private long tweetID;
+
+	ScrollStopConditionReachedTweet( long tweetID ) {
+		this.tweetID = tweetID;
+	}
+
+	@Override
+	public boolean isSatisfied( WebDriver driver ) {
+		try {
+			long lastID = Utils.parseLongDefault( String.valueOf( ( (JavascriptExecutor) driver ).executeScript( SCRIPT ) ) );
+
+			return lastID != 0 && lastID <= tweetID;
+		}
+		catch ( Exception e ) {
+			return false;
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "reached tweet " + tweetID;
+	}
+}
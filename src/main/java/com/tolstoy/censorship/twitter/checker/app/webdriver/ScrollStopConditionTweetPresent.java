@@ -0,0 +1,56 @@
+/*
+ * Copyright 2018 Chris Kelly
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.tolstoy.censorship.twitter.checker.app.webdriver;
+
+import java.util.*;
+import org.openqa.selenium.*;
+import com.tolstoy.censorship.twitter.checker.api.webdriver.*;
+
+/**
+ * Satisfied once all the tweets with the given IDs are on the page,
+ * including tweets that have already been extracted and trimmed (see
+ * WebDriverFactory).
+ */
+class ScrollStopConditionTweetPresent implements IScrollStopCondition {
+	private static final String SCRIPT = "var ids = arguments[ 0 ]; " +
+		"for ( var i = 0; i < ids.length; i++ ) { " +
+			"if ( !document.querySelector( '.tweet[data-tweet-id=\"' + ids[ i ] + '\"], " +
+											"[data-extracted-tweet-id=\"' + ids[ i ] + '\"]' ) ) { return false; } " +
+		"} " +
+		"return true;";
+
+	private List<String> tweetIDs;
+
+	ScrollStopConditionTweetPresent( Collection<Long> tweetIDs ) {
+		this.tweetIDs = new ArrayList<String>( tweetIDs.size() );
+		for ( Long tweetID : tweetIDs ) {
+			this.tweetIDs.add( "" + tweetID );
+		}
+	}
+
+	@Override
+	public boolean isSatisfied( WebDriver driver ) {
+		try {
+			return Boolean.TRUE.equals( ( (JavascriptExecutor) driver ).executeScript( SCRIPT, tweetIDs ) );
+		}
+		catch ( Exception e ) {
+			return false;
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "tweets " + tweetIDs + " are present";
+	}
+}
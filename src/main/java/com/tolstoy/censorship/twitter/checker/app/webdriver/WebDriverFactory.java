@@ -35,26 +35,48 @@ public class WebDriverFactory implements IWebDriverFactory {
 	private static final Logger logger = LogManager.getLogger( WebDriverFactory.class );
 
 	private static final String TWEETUSER_HANDLE_UNKNOWN = "unknownuser";
+		//	the DELAY_ values are upper bounds, see PageReadyWaiter
 	private static final int DELAY_PRE_TWEETS = 10000;
 	private static final int DELAY_POST_CLICK_LOWQUALITY_BUTTON = 5000;
 	private static final int DELAY_POST_CLICK_ABUSIVEQUALITY_BUTTON = 5000;
 	private static final int NUMBER_OF_SCROLL_CHECK_FOR_BUTTONS_CYCLES = 2;
-	private static final int IMPLICITWAIT_PRE_ERRORPAGE = 5;
+		//	the page has already been waited for when these are used, and
+		//	an implicit wait makes findElements() wait that long for elements
+		//	that aren't there
+	private static final int IMPLICITWAIT_PRE_ERRORPAGE = 0;
 	private static final int IMPLICITWAIT_PRE_SCROLLING = 20;
-	private static final int IMPLICITWAIT_PRE_TWEETS = 20;
-	private static final int IMPLICITWAIT_POST_TWEETS = 0;
+	private static final int IMPLICITWAIT_PRE_TWEETS = 0;
+	protected static final int IMPLICITWAIT_POST_TWEETS = 0;
+
+		//	keeps the element's height so the page doesn't jump and the
+		//	scroll height checks still work
+	private static final String SCRIPT_TRIM_TWEETS = "var ids = arguments[ 0 ]; " +
+		"for ( var i = 0; i < ids.length; i++ ) { " +
+			"var elem = document.querySelector( '.tweet[data-tweet-id=\"' + ids[ i ] + '\"]' ); " +
+			"if ( !elem ) { continue; } " +
+			"elem.style.height = elem.offsetHeight + 'px'; " +
+			"elem.setAttribute( 'data-extracted-tweet-id', ids[ i ] ); " +
+			"elem.classList.remove( 'tweet' ); " +
+			"while ( elem.firstChild ) { elem.removeChild( elem.firstChild ); } " +
+		"}";
 
 	private ITweetFactory tweetFactory;
 	private ISnapshotFactory snapshotFactory;
 	private IPreferences prefs;
 	private IResourceBundleWithFormatting bundle;
+	private TweetAttributeRetentionPolicy attributeRetentionPolicy;
 
+	/**
+	 * @param attributeRetentionPolicy applied to each snapshot once it has been extracted
+	 */
 	public WebDriverFactory( ISnapshotFactory snapshotFactory, ITweetFactory tweetFactory,
-									IPreferences prefs, IResourceBundleWithFormatting bundle ) throws Exception {
+									IPreferences prefs, IResourceBundleWithFormatting bundle,
+									TweetAttributeRetentionPolicy attributeRetentionPolicy ) throws Exception {
 		this.tweetFactory = tweetFactory;
 		this.snapshotFactory = snapshotFactory;
 		this.prefs = prefs;
 		this.bundle = bundle;
+		this.attributeRetentionPolicy = attributeRetentionPolicy;
 	}
 
 	@Override
@@ -112,6 +134,8 @@ public class WebDriverFactory implements IWebDriverFactory {
 		ret.setNumFollowers( Utils.parseIntDefault( profileMap.get( "followers" ) ) );
 		ret.setNumFollowing( Utils.parseIntDefault( profileMap.get( "following" ) ) );
 
+		applyAttributeRetention( ret );
+
 		return ret;
 	}
 
@@ -127,6 +151,7 @@ public class WebDriverFactory implements IWebDriverFactory {
 		ITweetCollection tweetCollection = makeTweetCollectionFromURL( driver, driverutils, infiniteScroller,
 																		url, numberOfPagesToCheck, maxTweets );
 		ret.setComplete( infiniteScroller.getComplete() );
+		ret.setStoppedEarly( infiniteScroller.getStopped() );
 
 		List<ITweet> tweets = tweetCollection.getTweets();
 		if ( tweets == null || tweets.size() < 1 ) {
@@ -143,21 +168,25 @@ public class WebDriverFactory implements IWebDriverFactory {
 
 		ret.setTitle( driver.getTitle() );
 
-		ret.setNumRetweets( Utils.parseIntDefault( individualTweet.getAttribute( "retweetcount" ) ) );
-		ret.setNumLikes( Utils.parseIntDefault( individualTweet.getAttribute( "favoritecount" ) ) );
-		ret.setNumReplies( Utils.parseIntDefault( individualTweet.getAttribute( "replycount" ) ) );
+		ret.setNumRetweets( individualTweet.getRetweetCount() );
+		ret.setNumLikes( individualTweet.getFavoriteCount() );
+		ret.setNumReplies( individualTweet.getReplyCount() );
+
+		applyAttributeRetention( ret );
 
 		return ret;
 	}
 
 	@Override
-	public ITweetCollection makeTweetCollectionFromURL( WebDriver driver,
-														IWebDriverUtils driverutils,
+	public ITweetCollection makeTweetCollectionFromURL( final WebDriver driver,
+														final IWebDriverUtils driverutils,
 														IInfiniteScrollingActivator infiniteScroller,
 														String url,
 														int numberOfPagesToCheck,
-														int maxTweets ) throws Exception {
-		Utils.delay( DELAY_PRE_TWEETS );
+														final int maxTweets ) throws Exception {
+		PageReadyWaiter waiter = new PageReadyWaiter( driver );
+
+		waiter.waitForTweetsOrError( DELAY_PRE_TWEETS );
 
 		driver.manage().timeouts().implicitlyWait( IMPLICITWAIT_PRE_ERRORPAGE, TimeUnit.SECONDS );
 
@@ -166,11 +195,27 @@ public class WebDriverFactory implements IWebDriverFactory {
 			throw new RuntimeException( "page not found: " + url );
 		}
 
-		ITweetCollection collection = tweetFactory.makeTweetCollection();
+		final ITweetCollection collection = tweetFactory.makeTweetCollection();
 		collection.setAttribute( "url", url );
 		collection.setAttribute( "numberOfPagesToCheck", "" + numberOfPagesToCheck );
 		collection.setAttribute( "maxTweets", "" + maxTweets );
 
+		if ( isIncrementalExtraction() ) {
+				//	read each screen as it arrives and empty the tweets that
+				//	have been read, so the DOM doesn't keep growing
+			infiniteScroller.setStepListener( new IScrollStepListener() {
+				@Override
+				public void screenLoaded( WebDriver stepDriver ) {
+					try {
+						loadNewTweets( driver, driverutils, collection, maxTweets, true );
+					}
+					catch ( Exception e ) {
+						logger.error( "cannot load tweets while scrolling", e );
+					}
+				}
+			});
+		}
+
 		driver.manage().timeouts().implicitlyWait( IMPLICITWAIT_PRE_SCROLLING, TimeUnit.SECONDS );
 
 		for ( int i = 0; i < NUMBER_OF_SCROLL_CHECK_FOR_BUTTONS_CYCLES; i++ ) {
@@ -178,6 +223,12 @@ public class WebDriverFactory implements IWebDriverFactory {
 			infiniteScroller.activate( numberOfPagesToCheck );
 			logger.info( "done scrolling phase #" + i );
 
+			if ( infiniteScroller.getStopped() ) {
+					//	what the caller is looking for is already on the page
+				logger.info( "scrolling stopped early in phase #" + i );
+				break;
+			}
+
 			boolean bNoMoreButtons = true;
 
 			driver.manage().timeouts().implicitlyWait( IMPLICITWAIT_PRE_TWEETS, TimeUnit.SECONDS );
@@ -185,16 +236,18 @@ public class WebDriverFactory implements IWebDriverFactory {
 			List<WebElement> lowQualityButtons = driver.findElements( By.xpath( driverutils.makeByXPathClassString( "ThreadedConversation-showMoreThreadsButton" ) ) );
 			if ( lowQualityButtons.size() > 0 ) {
 				logger.info( "found 'low quality' button" );
+				int tweetCountPreClick = waiter.getTweetCount();
 				lowQualityButtons.get( 0 ).click();
-				Utils.delay( DELAY_POST_CLICK_LOWQUALITY_BUTTON );
+				waiter.waitForNewTweets( tweetCountPreClick, DELAY_POST_CLICK_LOWQUALITY_BUTTON );
 				bNoMoreButtons = false;
 			}
 
 			List<WebElement> abusiveQualityButtons = driver.findElements( By.xpath( driverutils.makeByXPathClassString( "ThreadedConversation-showMoreThreadsPrompt" ) ) );
 			if ( abusiveQualityButtons.size() > 0 ) {
 				logger.info( "found 'abusive quality' button" );
+				int tweetCountPreClick = waiter.getTweetCount();
 				abusiveQualityButtons.get( 0 ).click();
-				Utils.delay( DELAY_POST_CLICK_ABUSIVEQUALITY_BUTTON );
+				waiter.waitForNewTweets( tweetCountPreClick, DELAY_POST_CLICK_ABUSIVEQUALITY_BUTTON );
 				bNoMoreButtons = false;
 			}
 
@@ -205,52 +258,7 @@ public class WebDriverFactory implements IWebDriverFactory {
 		}
 
 		logger.info( "looking for tweets..." );
-		List<WebElement> tweetElems = driver.findElements( By.xpath( driverutils.makeByXPathClassString( "tweet" ) ) );
-		logger.info( "found " + tweetElems.size() + " tweets" );
-
-		driver.manage().timeouts().implicitlyWait( IMPLICITWAIT_POST_TWEETS, TimeUnit.SECONDS );
-
-		int tweetCount = 0;
-		for ( WebElement tweetElem : tweetElems ) {
-			if ( Utils.isEmpty( tweetElem.getAttribute( "data-tweet-id" ) ) ||
-					Utils.isEmpty( tweetElem.getAttribute( "data-name" ) ) ) {
-				logger.info( "skipping empty tweet, classes:" + tweetElem.getAttribute( "class" ) );
-				continue;
-			}
-
-			ITweet tweet = tweetFactory.makeTweet();
-
-			loadTweetAttributes( driver, driverutils, tweet, tweetElem );
-
-			tweet.setClasses( new StringList( tweetElem.getAttribute( "class" ) ) );
-			tweet.setMentions( new StringList( tweetElem.getAttribute( "data-mentions" ) ) );
-
-			try {
-				tweet.setID( Long.parseLong( tweet.getAttribute( "tweetid" ) ) );
-			}
-			catch ( Exception e ) {
-				logger.info( "can't parse tweetid attribute, tweet is " + tweet );
-				throw e;
-			}
-
-			tweet.setUser( makeTweetUser( tweet.getAttribute( "screenname" ),
-											tweet.getAttribute( "name" ),
-											tweet.getAttribute( "userid" ),
-											tweet.getAttribute( "verifiedText" ),
-											tweet.getAttribute( "avatarURL" ) ) );
-
-			collection.addTweet( tweet );
-
-			tweetCount++;
-
-			if ( tweetCount % 10 == 0 ) {
-				logger.info( "retrieving tweet #" + tweetCount );
-			}
-
-			if ( maxTweets != 0 && tweetCount >= maxTweets ) {
-				break;
-			}
-		}
+		loadNewTweets( driver, driverutils, collection, maxTweets, false );
 
 		return collection;
 	}
@@ -270,6 +278,16 @@ public class WebDriverFactory implements IWebDriverFactory {
 		}
 	}
 
+	@Override
+	public IScrollStopCondition makeTweetPresentStopCondition( Collection<Long> tweetIDs ) {
+		return new ScrollStopConditionTweetPresent( tweetIDs );
+	}
+
+	@Override
+	public IScrollStopCondition makeReachedTweetStopCondition( long tweetID ) {
+		return new ScrollStopConditionReachedTweet( tweetID );
+	}
+
 	@Override
 	public IWebDriverUtils makeWebDriverUtils( WebDriver driver ) {
 		return new WebDriverUtils( driver );
@@ -277,10 +295,33 @@ public class WebDriverFactory implements IWebDriverFactory {
 
 	@Override
 	public WebDriver makeWebDriver() throws Exception {
+		WebDriver driver = makeFirefoxDriver();
+
+		if ( !isScrapingProfile() ) {
+				//	keep the window out of the way
+			driver.manage().window().setPosition( new Point( -5000, 0 ) );
+		}
+
+		return driver;
+	}
+
+	protected WebDriver makeFirefoxDriver() throws Exception {
 		FirefoxBinary ffBin;
 		FirefoxProfile ffProfile;
 
-		if ( !prefs.isEmpty( "prefs.firefox_path_app" ) && !prefs.isEmpty( "prefs.firefox_path_profile" ) ) {
+		if ( isScrapingProfile() ) {
+			ffBin = prefs.isEmpty( "prefs.firefox_path_app" ) ? new FirefoxBinary() : new FirefoxBinary( new File( prefs.getValue( "prefs.firefox_path_app" ) ) );
+			ffProfile = prefs.isEmpty( "prefs.firefox_path_profile" ) ? new FirefoxProfile() : new FirefoxProfile( new File( prefs.getValue( "prefs.firefox_path_profile" ) ) );
+			setFirefoxProfilePreferences( ffProfile );
+			setScrapingProfilePreferences( ffProfile );
+
+			ffBin.setEnvironmentProperty( "MOZ_HEADLESS", "1" );
+
+			logger.info( "making headless WebDriver with scraping profile" );
+
+			return new FirefoxDriver( ffBin, ffProfile );
+		}
+		else if ( !prefs.isEmpty( "prefs.firefox_path_app" ) && !prefs.isEmpty( "prefs.firefox_path_profile" ) ) {
 			ffBin = new FirefoxBinary( new File( prefs.getValue( "prefs.firefox_path_app" ) ) );
 			ffProfile = new FirefoxProfile( new File( prefs.getValue( "prefs.firefox_path_profile" ) ) );
 			setFirefoxProfilePreferences( ffProfile );
@@ -304,12 +345,150 @@ public class WebDriverFactory implements IWebDriverFactory {
 		}
 	}
 
+	protected boolean isScrapingProfile() {
+		return Utils.isStringTrue( prefs.getValue( "prefs.scraping_profile" ) );
+	}
+
+	/**
+	 * The snapshot is still usable if this fails, it just keeps all of
+	 * its attributes.
+	 */
+	protected void applyAttributeRetention( ISnapshot snapshot ) {
+		if ( attributeRetentionPolicy == null ) {
+			return;
+		}
+
+		try {
+			snapshot.applyAttributeRetention( attributeRetentionPolicy );
+		}
+		catch ( Exception e ) {
+			logger.error( "cannot apply attribute retention to " + snapshot.getURL(), e );
+		}
+	}
+
+	protected ITweetFactory getTweetFactory() {
+		return tweetFactory;
+	}
+
+	/**
+	 * Add the tweets on the page that aren't in the collection yet, up to
+	 * a total of maxTweets (0 for no limit). If trim is true, empty the
+	 * added tweets' elements afterward.
+	 */
+	protected void loadNewTweets( WebDriver driver, IWebDriverUtils driverutils, ITweetCollection collection,
+									int maxTweets, boolean trim ) throws Exception {
+		int previousSize = collection.getTweets().size();
+
+		loadTweets( driver, driverutils, collection, maxTweets );
+
+		List<ITweet> tweets = collection.getTweets();
+		if ( !trim || tweets.size() <= previousSize ) {
+			return;
+		}
+
+		List<String> tweetIDs = new ArrayList<String>( tweets.size() - previousSize );
+		for ( ITweet tweet : tweets.subList( previousSize, tweets.size() ) ) {
+			tweetIDs.add( "" + tweet.getID() );
+		}
+
+		( (JavascriptExecutor) driver ).executeScript( SCRIPT_TRIM_TWEETS, tweetIDs );
+
+		logger.info( "extracted and trimmed " + tweetIDs.size() + " tweets, " + tweets.size() + " so far" );
+	}
+
+	protected boolean isIncrementalExtraction() {
+		return Utils.isStringTrue( prefs.getValue( "webdriver.incremental_extraction" ) );
+	}
+
+	/**
+	 * Find the tweets on the current page and add them to the collection,
+	 * stopping after maxTweets (if not 0) have been added.
+	 */
+	protected void loadTweets( WebDriver driver, IWebDriverUtils driverutils, ITweetCollection collection, int maxTweets ) throws Exception {
+		List<WebElement> tweetElems = driver.findElements( By.xpath( driverutils.makeByXPathClassString( "tweet" ) ) );
+		logger.info( "found " + tweetElems.size() + " tweets" );
+
+		driver.manage().timeouts().implicitlyWait( IMPLICITWAIT_POST_TWEETS, TimeUnit.SECONDS );
+
+		int tweetCount = 0;
+		for ( WebElement tweetElem : tweetElems ) {
+			if ( maxTweets != 0 && collection.getTweets().size() >= maxTweets ) {
+				break;
+			}
+
+			if ( Utils.isEmpty( tweetElem.getAttribute( "data-tweet-id" ) ) ||
+					Utils.isEmpty( tweetElem.getAttribute( "data-name" ) ) ) {
+				logger.info( "skipping empty tweet, classes:" + tweetElem.getAttribute( "class" ) );
+				continue;
+			}
+
+			if ( collection.getTweetByID( Utils.parseLongDefault( tweetElem.getAttribute( "data-tweet-id" ) ) ) != null ) {
+				continue;
+			}
+
+			ITweet tweet = tweetFactory.makeTweet();
+
+			loadTweetAttributes( driver, driverutils, tweet, tweetElem );
+
+			tweet.setClasses( new StringList( tweetElem.getAttribute( "class" ) ) );
+			tweet.setMentions( new StringList( tweetElem.getAttribute( "data-mentions" ) ) );
+
+			addTweet( collection, tweet );
+
+			tweetCount++;
+
+			if ( tweetCount % 10 == 0 ) {
+				logger.info( "retrieving tweet #" + tweetCount );
+			}
+		}
+	}
+
+	/**
+	 * Set the ID and user of a tweet whose attributes have been loaded,
+	 * then add it to the collection.
+	 */
+	protected void addTweet( ITweetCollection collection, ITweet tweet ) throws Exception {
+		try {
+			tweet.setID( Long.parseLong( tweet.getAttribute( "tweetid" ) ) );
+		}
+		catch ( Exception e ) {
+			logger.info( "can't parse tweetid attribute, tweet is " + tweet );
+			throw e;
+		}
+
+		tweet.setUser( makeTweetUser( tweet.getAttribute( "screenname" ),
+										tweet.getAttribute( "name" ),
+										tweet.getAttribute( "userid" ),
+										tweet.getAttribute( "verifiedText" ),
+										tweet.getAttribute( "avatarURL" ) ) );
+
+		collection.addTweet( tweet );
+	}
+
 	protected void setFirefoxProfilePreferences( FirefoxProfile ffProfile ) {
 		ffProfile.setPreference( "app.update.auto", false );
 		ffProfile.setPreference( "app.update.enabled", false );
 		ffProfile.setPreference( "browser.shell.checkDefaultBrowser", false );
 	}
 
+	/**
+	 * Only the DOM is read, so don't download anything that's just
+	 * for display.
+	 */
+	protected void setScrapingProfilePreferences( FirefoxProfile ffProfile ) {
+			//	2 = don't load images
+		ffProfile.setPreference( "permissions.default.image", 2 );
+		ffProfile.setPreference( "media.autoplay.enabled", false );
+			//	1 = block autoplay
+		ffProfile.setPreference( "media.autoplay.default", 1 );
+		ffProfile.setPreference( "media.preload.default", 0 );
+		ffProfile.setPreference( "gfx.downloadable_fonts.enabled", false );
+		ffProfile.setPreference( "browser.display.use_document_fonts", 0 );
+		ffProfile.setPreference( "privacy.trackingprotection.enabled", true );
+		ffProfile.setPreference( "plugin.state.flash", 0 );
+		ffProfile.setPreference( "browser.sessionhistory.max_entries", 2 );
+	}
+
 	protected void loadTweetAttributes( WebDriver driver, IWebDriverUtils driverutils, ITweet tweet, WebElement tweetElem ) {
 		WebElement tempElem;
 
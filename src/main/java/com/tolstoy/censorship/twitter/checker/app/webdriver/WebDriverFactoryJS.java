@@ -36,14 +36,67 @@ import com.tolstoy.censorship.twitter.checker.api.snapshot.*;
 public class WebDriverFactoryJS extends WebDriverFactory implements IWebDriverFactory {
 	private static final Logger logger = LogManager.getLogger( WebDriverFactoryJS.class );
 
-	private String attributesScript, tweetScript;
+	private String attributesScript, tweetScript, tweetsScript;
 
 	public WebDriverFactoryJS( ISnapshotFactory snapshotFactory, ITweetFactory tweetFactory,
-									IPreferences prefs, IResourceBundleWithFormatting bundle ) throws Exception {
-		super( snapshotFactory, tweetFactory, prefs, bundle );
+									IPreferences prefs, IResourceBundleWithFormatting bundle,
+									TweetAttributeRetentionPolicy attributeRetentionPolicy ) throws Exception {
+		super( snapshotFactory, tweetFactory, prefs, bundle, attributeRetentionPolicy );
 
 		attributesScript = IOUtils.toString( getClass().getResource( "/attributes.js" ), StandardCharsets.UTF_8 );
 		tweetScript = IOUtils.toString( getClass().getResource( "/tweet.js" ), StandardCharsets.UTF_8 );
+
+			//	tweets.js calls the other two scripts as functions for each tweet on the page
+		tweetsScript = "var extractAttributes = function() {\n" + attributesScript + "\n};\n" +
+						"var extractTweet = function() {\n" + tweetScript + "\n};\n" +
+						IOUtils.toString( getClass().getResource( "/tweets.js" ), StandardCharsets.UTF_8 );
+	}
+
+	/**
+	 * Read all the tweets on the page with one script call instead of
+	 * two calls per tweet.
+	 */
+	@Override
+	protected void loadTweets( WebDriver driver, IWebDriverUtils driverutils, ITweetCollection collection, int maxTweets ) throws Exception {
+		JavascriptExecutor javascriptExecutor = (JavascriptExecutor) driver;
+
+		int remaining = 0;
+		if ( maxTweets != 0 ) {
+			remaining = maxTweets - collection.getTweets().size();
+			if ( remaining <= 0 ) {
+				return;
+			}
+		}
+
+		List<Map<String,String>> tweetMaps = makeStringMapList( javascriptExecutor.executeScript( tweetsScript, remaining ) );
+		logger.info( "found " + tweetMaps.size() + " tweets" );
+
+		driver.manage().timeouts().implicitlyWait( IMPLICITWAIT_POST_TWEETS, TimeUnit.SECONDS );
+
+		for ( Map<String,String> tweetMap : tweetMaps ) {
+			if ( Utils.isEmpty( tweetMap.get( "tweetid" ) ) || Utils.isEmpty( tweetMap.get( "name" ) ) ) {
+				logger.info( "skipping empty tweet, classes:" + tweetMap.get( "class" ) );
+				continue;
+			}
+
+			if ( collection.getTweetByID( Utils.parseLongDefault( tweetMap.get( "tweetid" ) ) ) != null ) {
+				continue;
+			}
+
+			ITweet tweet = getTweetFactory().makeTweet();
+
+			tweet.setAttributes( tweetMap );
+			normalizeTweetAttributes( tweet );
+
+			tweet.setClasses( new StringList( tweetMap.get( "class" ) ) );
+			tweet.setMentions( new StringList( tweetMap.get( "mentions" ) ) );
+
+			addTweet( collection, tweet );
+
+			if ( maxTweets != 0 && collection.getTweets().size() >= maxTweets ) {
+				break;
+			}
+		}
 	}
 
 	@Override
@@ -60,6 +113,10 @@ public class WebDriverFactoryJS extends WebDriverFactory implements IWebDriverFa
 
 		tweet.setAttributes( tweetMap );
 
+		normalizeTweetAttributes( tweet );
+	}
+
+	private void normalizeTweetAttributes( ITweet tweet ) {
 		if ( Utils.isEmpty( tweet.getAttribute( "tweethtml" ) ) ) {
 			tweet.setAttribute( "tweethtml", "" );
 		}
@@ -82,6 +139,22 @@ public class WebDriverFactoryJS extends WebDriverFactory implements IWebDriverFa
 		}
 	}
 
+	private List<Map<String,String>> makeStringMapList( Object x ) {
+		if ( !( x instanceof List ) ) {
+			throw new RuntimeException( "webdriver JS returned something other than a List: " + x );
+		}
+
+		List<?> temp = (List<?>) x;
+
+		List<Map<String,String>> ret = new ArrayList<Map<String,String>>( temp.size() );
+
+		for ( Object obj : temp ) {
+			ret.add( makeStringMap( obj ) );
+		}
+
+		return ret;
+	}
+
 	private Map<String,String> makeStringMap( Object x ) {
 		if ( !( x instanceof Map ) ) {
 			throw new RuntimeException( "webdriver JS returned something other than a Map: " + x );
@@ -23,15 +23,17 @@
 
 package com.tolstoy.external.de.tudarmstadt.ukp.dkpro.core.readability.measure;
 
-import java.util.ArrayList;
 import java.util.List;
 
 /**
  * Java port of readability measures from the Linux 'style' command ('diction'
  * package).
  * 
+ * To get several measures for the same text, call count() once and pass the
+ * result to getReadabilityScore(Measures, Counts) for each measure. Instances
+ * can be shared between threads as long as setLanguage() isn't called.
+ * 
  */
-// FIXME add unit test
 public class ReadabilityMeasures
 {
 
@@ -45,6 +47,66 @@ public class ReadabilityMeasures
         smog
     }
     
+    /**
+     * The counts all of the measures are made from. Only strings made of
+     * letters and digits are counted as words.
+     */
+    public static final class Counts
+    {
+        private final int nrofWords;
+        private final int nrofSentences;
+        private final int nrofLetters;
+        private final int nrofSyllables;
+        private final int nrofBigwords;
+        private final int nrofLongwords;
+        
+        Counts(int nrofWords, int nrofSentences, int nrofLetters, int nrofSyllables, int nrofBigwords, int nrofLongwords)
+        {
+            this.nrofWords = nrofWords;
+            this.nrofSentences = nrofSentences;
+            this.nrofLetters = nrofLetters;
+            this.nrofSyllables = nrofSyllables;
+            this.nrofBigwords = nrofBigwords;
+            this.nrofLongwords = nrofLongwords;
+        }
+        
+        public int getNrofWords()
+        {
+            return nrofWords;
+        }
+        
+        public int getNrofSentences()
+        {
+            return nrofSentences;
+        }
+        
+        public int getNrofLetters()
+        {
+            return nrofLetters;
+        }
+        
+        public int getNrofSyllables()
+        {
+            return nrofSyllables;
+        }
+        
+        /**
+         * @return The number of words with 3 or more syllables.
+         */
+        public int getNrofBigwords()
+        {
+            return nrofBigwords;
+        }
+        
+        /**
+         * @return The number of words with more than 6 letters.
+         */
+        public int getNrofLongwords()
+        {
+            return nrofLongwords;
+        }
+    }
+    
     private final WordSyllableCounter syllableCounter;
     private String language;
 
@@ -61,56 +123,64 @@ public class ReadabilityMeasures
     }
 
     public double getReadabilityScore(Measures measure, List<String> words, int nrofSentences) {
-        if (measure.equals(Measures.ari)) {
-            return ari(words, nrofSentences);
-        }
-        else if (measure.equals(Measures.coleman_liau)) {
-            return coleman_liau(words, nrofSentences);
-        }
-        else if (measure.equals(Measures.flesch)) {
-            return flesch(words, nrofSentences);
-        }
-        else if (measure.equals(Measures.fog)) {
-            return fog(words, nrofSentences);
-        }
-        else if (measure.equals(Measures.kincaid)) {
-            return kincaid(words, nrofSentences);
-        }
-        else if (measure.equals(Measures.lix)) {
-            return lix(words, nrofSentences);
-        }
-        else if (measure.equals(Measures.smog)) {
-            return smog(words, nrofSentences);
-        }
-        else {
-            throw new IllegalArgumentException("Unknown measure: " + measure.name());
-        }
+        return getReadabilityScore(measure, count(words, nrofSentences));
     }
     
-    /*
-     * only the strings consist of numbers or letters
-     * are considered as words.
-     */
-    private boolean isWord(String strWord)
-    {
-        for (int i = 0; i < strWord.length(); ++i) {
-            char ch = strWord.charAt(i);
-            if (!Character.isLetterOrDigit(ch)) {
-                return false;
-            }
+    public double getReadabilityScore(Measures measure, Counts counts) {
+        switch (measure) {
+        case ari:
+            return ari(counts.nrofLetters, counts.nrofWords, counts.nrofSentences);
+        case coleman_liau:
+            return coleman_liau(counts.nrofLetters, counts.nrofWords, counts.nrofSentences);
+        case flesch:
+            return flesch(counts.nrofSyllables, counts.nrofWords, counts.nrofSentences);
+        case fog:
+            return fog(counts.nrofWords, counts.nrofBigwords, counts.nrofSentences);
+        case kincaid:
+            return kincaid(counts.nrofWords, counts.nrofSyllables, counts.nrofSentences);
+        case lix:
+            return lix(counts.nrofWords, counts.nrofLongwords, counts.nrofSentences);
+        case smog:
+            return smog(counts.nrofBigwords, counts.nrofSentences);
+        default:
+            throw new IllegalArgumentException("Unknown measure: " + measure.name());
         }
-        return true;
     }
     
-    private List<String> filterWords(List<String> words)
+    /**
+     * Count everything the measures need in one pass over the words. Only
+     * the strings consisting of numbers or letters are considered as words.
+     * 
+     * @param words words.
+     * @param nrofSentences number of sentences.
+     * @return the counts.
+     */
+    public Counts count(List<String> words, int nrofSentences)
     {
-        List<String> newWords = new ArrayList<String>();
+        int nrofWords = 0;
+        int nrofLetters = 0;
+        int nrofSyllables = 0;
+        int nrofBigwords = 0;
+        int nrofLongwords = 0;
+        
         for (String word : words) {
-            if (isWord(word)) {
-                newWords.add(word);
+            int syllables = this.syllableCounter.countSyllablesIfWord(word);
+            if (syllables < 0) {
+                continue;
+            }
+            
+            nrofWords++;
+            nrofLetters += word.length();
+            nrofSyllables += syllables;
+            if (syllables >= 3) {
+                nrofBigwords++;
+            }
+            if (word.length() > 6) {
+                nrofLongwords++;
             }
         }
-        return newWords;
+        
+        return new Counts(nrofWords, nrofSentences, nrofLetters, nrofSyllables, nrofBigwords, nrofLongwords);
     }
     
     /**
@@ -123,12 +193,10 @@ public class ReadabilityMeasures
      */
     public double kincaid(List<String> words, int nrofSentences)
     {
-        words = filterWords(words);
-        int nrofSyllables = this.syllableCounter.countSyllables(words);
-        return kincaid(words.size(), nrofSyllables, nrofSentences);
+        return getReadabilityScore(Measures.kincaid, words, nrofSentences);
     }
     
-    private double kincaid(Integer nrofWords, Integer nrofSyllables, Integer nrofSentences)
+    private double kincaid(int nrofWords, int nrofSyllables, int nrofSentences)
     {
         return 11.8 * (((double) nrofSyllables) / nrofWords)
                 + 0.39 * (((double) nrofWords) / nrofSentences) - 15.59;
@@ -143,12 +211,10 @@ public class ReadabilityMeasures
      */
     public double ari(List<String> words, int nrofSentences)
     {
-        words = filterWords(words);
-        int nrofLetters = this.getNrofLetters(words);
-        return ari(nrofLetters, words.size(), nrofSentences);
+        return getReadabilityScore(Measures.ari, words, nrofSentences);
     }
     
-    private double ari(Integer nrofLetters, Integer nrofWords, Integer nrofSentences)
+    private double ari(int nrofLetters, int nrofWords, int nrofSentences)
     {
         return 4.71 * (((double) nrofLetters) / nrofWords)
                 + 0.5 * (((double) nrofWords) / nrofSentences) - 21.43;
@@ -164,11 +230,9 @@ public class ReadabilityMeasures
      */
     public double coleman_liau(List<String> words, int nrofSentences)
     {
-        words = filterWords(words);
-        int nrofLetters = this.getNrofLetters(words);
-        return coleman_liau(nrofLetters, words.size(), nrofSentences);
+        return getReadabilityScore(Measures.coleman_liau, words, nrofSentences);
     }
-    private double coleman_liau(Integer nrofLetters, Integer nrofWords, Integer nrofSentences)
+    private double coleman_liau(int nrofLetters, int nrofWords, int nrofSentences)
     {
         return 5.89 * (((double) nrofLetters) / nrofWords)
                 - 0.3 * (((double) nrofSentences) / (100 * nrofWords)) - 15.8;
@@ -183,11 +247,9 @@ public class ReadabilityMeasures
      */
     public double flesch(List<String> words, int nrofSentences)
     {
-        words = filterWords(words);
-        int nrofSyllables = this.syllableCounter.countSyllables(words);
-        return flesch(nrofSyllables, words.size(), nrofSentences);
+        return getReadabilityScore(Measures.flesch, words, nrofSentences);
     }
-    private double flesch(Integer nrofSyllables, Integer nrofWords, Integer nrofSentences)
+    private double flesch(int nrofSyllables, int nrofWords, int nrofSentences)
     {
         return 206.835 - 84.6 * (((double) nrofSyllables) / nrofWords) - 1.015
                 * (((double) nrofWords) / nrofSentences);
@@ -205,11 +267,9 @@ public class ReadabilityMeasures
      */
     public double fog(List<String> words, int nrofSentences)
     {
-        words = filterWords(words);
-        int nrofBigwords = getNrofBigwords(words);
-        return fog(words.size(), nrofBigwords, nrofSentences);
+        return getReadabilityScore(Measures.fog, words, nrofSentences);
     }
-    private double fog(Integer nrofWords, Integer nrofBigwords, Integer nrofSentences)
+    private double fog(int nrofWords, int nrofBigwords, int nrofSentences)
     {
         return ((((double) nrofWords) / nrofSentences + (100.0 * nrofBigwords) / nrofWords) * 0.4);
     }
@@ -225,11 +285,9 @@ public class ReadabilityMeasures
      */
     public double lix(List<String> words, int nrofSentences)
     {
-        words = filterWords(words);
-        int nrofLongWords = this.getNrofLongwords(words);
-        return lix(words.size(), nrofLongWords, nrofSentences);
+        return getReadabilityScore(Measures.lix, words, nrofSentences);
     }
-    private double lix(Integer nrofWords, Integer nrofLongWords, Integer nrofSentences)
+    private double lix(int nrofWords, int nrofLongWords, int nrofSentences)
     {
         double idx = ((double) nrofWords) / nrofSentences + 100.0 * (nrofLongWords) / nrofWords;
         if (idx < 34) {
@@ -270,11 +328,9 @@ public class ReadabilityMeasures
      */
     public double smog(List<String> words, int nrofSentences)
     {
-        words = filterWords(words);
-        int nrofBigwords = this.getNrofBigwords(words);
-        return smog(nrofBigwords, nrofSentences);
+        return getReadabilityScore(Measures.smog, words, nrofSentences);
     } 
-    private double smog(Integer nrofBigWords, Integer nrofSentences)
+    private double smog(int nrofBigWords, int nrofSentences)
     {
         return Math.sqrt((((double) nrofBigWords) / ((double) nrofSentences)) * 30.0) + 3.0;
     }
@@ -289,45 +345,4 @@ public class ReadabilityMeasures
     {
         this.language = language;
     }
-
-    private int getNrofLetters(Iterable<String> words)
-    {
-        int count = 0;
-        for (String word : words) {
-            count = count + word.length();
-        }
-        return count;
-    }
-
-    /**
-     * @param words
-     *            An iterable over words.
-     * @return The number of words with more than 3 syllables.
-     */
-    private int getNrofBigwords(Iterable<String> words)
-    {
-        int count = 0;
-        for (String word : words) {
-            if (this.syllableCounter.countSyllables(word) >= 3) {
-                count++;
-            }
-        }
-        return count;
-    }
-
-    /**
-     * @param words
-     *            An iterable over words.
-     * @return The number of words with more than 6 letters.
-     */
-    private int getNrofLongwords(Iterable<String> words)
-    {
-        int count = 0;
-        for (String word : words) {
-            if (word.length() > 6) {
-                count++;
-            }
-        }
-        return count;
-    }
 }
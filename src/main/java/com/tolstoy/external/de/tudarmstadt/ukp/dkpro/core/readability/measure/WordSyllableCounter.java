@@ -23,49 +23,46 @@
 
 package com.tolstoy.external.de.tudarmstadt.ukp.dkpro.core.readability.measure;
 
-import java.util.Arrays;
-import java.util.HashSet;
-import java.util.Set;
-
 /**
  * Counts syllables in words.  
  * 
  * This class is based on the methods of 'syll_en' and 'syll_de' 
  * in Linux'Style' command (a part of 'diction' package). 
  * 
+ * Instances have no mutable state and can be shared between threads.
+ * 
  *
  */
 public class WordSyllableCounter {
 
-    private final String[] vowelsArray   = {"a", "e", "i", "o", "u"};
-    private final String[] enVowelsArray = {"a", "e", "i", "o", "u", "y"};
-    private final String[] deVowelsArray = {"a", "e", "i", "o", "u", "ä", "ö", "ü"};
-
-    private final Set<String> vowels;
-    private final Set<String> deVowels;
-    private final Set<String> enVowels;
-    
     private final String languageCode;
+    private final boolean english;
+    private final boolean german;
     
     public WordSyllableCounter(String languageCode)
     {
-        vowels   = new HashSet<String>(Arrays.asList(vowelsArray));
-        deVowels = new HashSet<String>(Arrays.asList(deVowelsArray));
-        enVowels = new HashSet<String>(Arrays.asList(enVowelsArray));
-        
         this.languageCode = languageCode;
+        this.english = languageCode.equals("en");
+        this.german = languageCode.equals("de");
     }
     
-    private boolean isVowel(String character)
+    private boolean isVowel(char ch)
     {
-        if (languageCode.equals("en")) {
-            return enVowels.contains(character);
-        }
-        else if (languageCode.equals("de")) {
-            return deVowels.contains(character);
-        }
-        else {
-            return vowels.contains(character);
+        switch (ch) {
+        case 'a':
+        case 'e':
+        case 'i':
+        case 'o':
+        case 'u':
+            return true;
+        case 'y':
+            return english;
+        case '\u00e4':
+        case '\u00f6':
+        case '\u00fc':
+            return german;
+        default:
+            return false;
         }
     }
     
@@ -79,31 +76,60 @@ public class WordSyllableCounter {
     
     public int countSyllables(String word)
     {
-        String lowcaseWord = word.toLowerCase();
+        return countSyllables(word, false);
+    }
+    
+    /**
+     * Same as countSyllables(String), but only for words made of letters
+     * and digits.
+     * 
+     * @param word a word.
+     * @return the number of syllables, or -1 if the word has any other characters.
+     */
+    public int countSyllablesIfWord(String word)
+    {
+        return countSyllables(word, true);
+    }
+    
+    /*
+     * One pass over the characters, lowercasing them as they're read
+     * instead of making lowercased copies of the word and its characters.
+     */
+    private int countSyllables(String word, boolean wordsOnly)
+    {
+        int length = word.length();
+        int end = length;
         int count = 0;
         
-        if (this.languageCode.equals("en")) {
-            if (lowcaseWord.length() >= 2 && lowcaseWord
-                    .substring(lowcaseWord.length() - 2, lowcaseWord.length()).equals("ed")) {
-                lowcaseWord = lowcaseWord.substring(0, lowcaseWord.length() - 2);
+        if (length >= 2) {
+            char last = Character.toLowerCase(word.charAt(length - 1));
+            char secondLast = Character.toLowerCase(word.charAt(length - 2));
+            
+            if (english) {
+                if (secondLast == 'e' && last == 'd') {
+                    end = length - 2;
+                }
             }
-        }
-        else if (this.languageCode.equals("de")) {
-            if (lowcaseWord.length() >= 2 && lowcaseWord.charAt(lowcaseWord.length() - 1) == 'e'
-                    && !isVowel(lowcaseWord.substring(lowcaseWord.length() - 2,
-                            lowcaseWord.length() - 1))) {
-                count++;
-                lowcaseWord = lowcaseWord.substring(0, lowcaseWord.length() - 2);
+            else if (german) {
+                if (last == 'e' && !isVowel(secondLast)) {
+                    count++;
+                    end = length - 2;
+                }
             }
-
         }
-
-        for (int i = 0; i < lowcaseWord.length() - 1; ++i) {
-            String curCh = lowcaseWord.substring(i, i + 1);
-            String nextCh = lowcaseWord.substring(i + 1, i + 2);
-            if (isVowel(curCh) && !isVowel(nextCh)) {
+        
+        boolean previousIsVowel = false;
+        for (int i = 0; i < length; ++i) {
+            char ch = word.charAt(i);
+            if (wordsOnly && !Character.isLetterOrDigit(ch)) {
+                return -1;
+            }
+            
+            boolean currentIsVowel = isVowel(Character.toLowerCase(ch));
+            if (i > 0 && i < end && previousIsVowel && !currentIsVowel) {
                 ++count;
             }
+            previousIsVowel = currentIsVowel;
         }
         return (count == 0 ? 1 : count);
     }
@@ -0,0 +1,53 @@
+/*
+ * Copyright 2018 Chris Kelly
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+/*
+ * Bulk version of attributes.js and tweet.js: returns an array with one
+ * map per .tweet element on the page, so that the whole page can be read
+ * with a single WebDriver call.
+ *
+ * WebDriverFactoryJS prepends the other two scripts wrapped as the functions
+ * extractAttributes( tweetElem ) and extractTweet( tweetElem ).
+ *
+ * arguments[ 0 ] is the maximum number of tweets to return, or 0 for all.
+ */
+var maxTweets = arguments[ 0 ];
+var tweetElems = document.querySelectorAll( '.tweet' );
+var ret = [];
+
+for ( var i = 0; i < tweetElems.length; i++ ) {
+	var tweetElem = tweetElems[ i ];
+
+	var tweetID = tweetElem.getAttribute( 'data-tweet-id' );
+	var name = tweetElem.getAttribute( 'data-name' );
+	if ( !tweetID || !tweetID.trim() || !name || !name.trim() ) {
+		continue;
+	}
+
+	var item = extractTweet( tweetElem );
+	var attrs = extractAttributes( tweetElem );
+	for ( var key in attrs ) {
+		if ( attrs.hasOwnProperty( key ) ) {
+			item[ key ] = attrs[ key ];
+		}
+	}
+
+	ret.push( item );
+
+	if ( maxTweets > 0 && ret.length >= maxTweets ) {
+		break;
+	}
+}
+
+return ret;
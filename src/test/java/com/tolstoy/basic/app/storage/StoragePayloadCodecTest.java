@@ -0,0 +1,145 @@
+/*
+ * Copyright 2018 Chris Kelly
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.tolstoy.basic.app.storage;
+
+import java.io.*;
+import java.time.Instant;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tolstoy.basic.api.storage.IStorable;
+import com.tolstoy.basic.app.utils.Utils;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+public class StoragePayloadCodecTest extends TestCase {
+	public StoragePayloadCodecTest( String testName ) {
+		super( testName );
+	}
+
+	public static Test suite() {
+		return new TestSuite( StoragePayloadCodecTest.class );
+	}
+
+	/**
+	 */
+	public void testFormatByteRoundTrip() throws Exception {
+		TestRecord record = new TestRecord( 17, "handle:test" );
+
+		byte[] payload = StoragePayloadCodec.encode( record );
+		assertEquals( StoragePayloadCodec.FORMAT_DEFLATE_JSON, payload[ 0 ] );
+
+		TestRecord decoded = (TestRecord) StoragePayloadCodec.decode( new ByteArrayInputStream( payload ) );
+		assertEquals( 17, decoded.getID() );
+		assertEquals( "handle:test", decoded.getSearchKey() );
+		assertEquals( record.getCreateTime(), decoded.getCreateTime() );
+	}
+
+	/**
+	 */
+	public void testLegacyArrayPayload() throws Exception {
+		byte[] payload = Utils.getDefaultObjectMapper().writeValueAsString( new TestRecord( 18, "legacy:array" ) ).getBytes();
+		assertEquals( '[', payload[ 0 ] );
+
+		TestRecord decoded = (TestRecord) StoragePayloadCodec.decode( new ByteArrayInputStream( payload ) );
+		assertEquals( 18, decoded.getID() );
+		assertEquals( "legacy:array", decoded.getSearchKey() );
+	}
+
+	/**
+	 */
+	public void testLegacyObjectPayload() throws Exception {
+		String json = new ObjectMapper().writeValueAsString( new TestRecord( 19, "legacy:object" ) );
+		assertEquals( '{', json.charAt( 0 ) );
+
+			//	the default mapper can't read an object without its type, but the
+			//	whole row, including the first byte, has to reach it
+		String expected = null;
+		try {
+			Utils.getDefaultObjectMapper().readValue( json, Object.class );
+		}
+		catch ( IOException e ) {
+			expected = e.getMessage();
+		}
+		assertNotNull( expected );
+
+		try {
+			StoragePayloadCodec.decode( new ByteArrayInputStream( json.getBytes() ) );
+			fail( "an untyped object should not decode" );
+		}
+		catch ( IOException e ) {
+			assertEquals( expected, e.getMessage() );
+		}
+	}
+
+	/**
+	 */
+	public void testEmptyPayload() throws Exception {
+		try {
+			StoragePayloadCodec.decode( new ByteArrayInputStream( new byte[ 0 ] ) );
+			fail( "an empty payload should not decode" );
+		}
+		catch ( IOException e ) {
+		}
+	}
+
+	@JsonIgnoreProperties(ignoreUnknown=true)
+	public static class TestRecord implements IStorable {
+		@JsonProperty
+		private long id;
+
+		@JsonProperty
+		private Instant createTime;
+
+		@JsonProperty
+		private String searchKey;
+
+		public TestRecord() {
+			this( 0, "" );
+		}
+
+		public TestRecord( long id, String searchKey ) {
+			this.id = id;
+			this.searchKey = searchKey;
+			this.createTime = Instant.now();
+		}
+
+		@Override
+		public long getID() {
+			return id;
+		}
+
+		@Override
+		public void setID( long id ) {
+			this.id = id;
+		}
+
+		@Override
+		public Instant getCreateTime() {
+			return createTime;
+		}
+
+		@Override
+		public Instant getModifyTime() {
+			return createTime;
+		}
+
+		@Override
+		public String getSearchKey() {
+			return searchKey;
+		}
+	}
+}
@@ -0,0 +1,214 @@
+/*
+ * Copyright 2018 Chris Kelly
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.tolstoy.basic.app.storage;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.time.Instant;
+import com.tolstoy.basic.api.storage.*;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+public class StorageWriteBehindTest extends TestCase {
+	private static final IStorageTable TABLE = new IStorageTable() {
+		@Override
+		public String getTablename() {
+			return "test";
+		}
+	};
+
+	private List<String> written;
+	private CountDownLatch firstWriteStarted;
+	private CountDownLatch firstWriteAllowed;
+
+	public StorageWriteBehindTest( String testName ) {
+		super( testName );
+	}
+
+	public static Test suite() {
+		return new TestSuite( StorageWriteBehindTest.class );
+	}
+
+	protected void setUp() throws Exception {
+		written = Collections.synchronizedList( new ArrayList<String>() );
+		firstWriteStarted = new CountDownLatch( 1 );
+		firstWriteAllowed = new CountDownLatch( 1 );
+	}
+
+	/**
+	 */
+	public void testRecordQueuedTwiceIsWrittenOnce() throws Exception {
+		StorageWriteBehind storage = new StorageWriteBehind( makeStorage(), 10 );
+		final List<String> heard = Collections.synchronizedList( new ArrayList<String>() );
+
+			//	keep the writer busy so that the next record stays queued
+		storage.saveRecordLater( TABLE, new TestRecord( "blocker" ), null );
+		assertTrue( firstWriteStarted.await( 5, TimeUnit.SECONDS ) );
+
+		TestRecord record = new TestRecord( "twice" );
+		storage.saveRecordLater( TABLE, record, makeListener( heard, "first" ) );
+		storage.saveRecordLater( TABLE, record, makeListener( heard, "second" ) );
+
+		firstWriteAllowed.countDown();
+		storage.flush();
+
+		assertEquals( Arrays.asList( "blocker", "twice" ), written );
+		assertEquals( Arrays.asList( "first", "second" ), heard );
+
+		storage.shutdown();
+	}
+
+	/**
+	 */
+	public void testFlushReportsFirstFailure() throws Exception {
+		firstWriteAllowed.countDown();
+
+		StorageWriteBehind storage = new StorageWriteBehind( makeStorage(), 10 );
+
+		storage.saveRecordLater( TABLE, new TestRecord( "fail1" ), null );
+		storage.saveRecordLater( TABLE, new TestRecord( "fail2" ), null );
+		storage.saveRecordLater( TABLE, new TestRecord( "ok" ), null );
+
+		try {
+			storage.flush();
+			fail( "flush should report the failed write" );
+		}
+		catch ( Exception e ) {
+			assertEquals( "fail1", e.getMessage() );
+		}
+
+		assertEquals( Arrays.asList( "ok" ), written );
+
+			//	the error is only reported once
+		storage.flush();
+
+		storage.shutdown();
+	}
+
+	/**
+	 */
+	public void testShutdownDrainsQueue() throws Exception {
+		StorageWriteBehind storage = new StorageWriteBehind( makeStorage(), 10 );
+
+		storage.saveRecordLater( TABLE, new TestRecord( "blocker" ), null );
+		assertTrue( firstWriteStarted.await( 5, TimeUnit.SECONDS ) );
+
+		for ( int i = 1; i <= 3; i++ ) {
+			storage.saveRecordLater( TABLE, new TestRecord( "queued" + i ), null );
+		}
+
+		new Thread( new Runnable() {
+			@Override
+			public void run() {
+				try {
+					Thread.sleep( 100 );
+				}
+				catch ( InterruptedException e ) {
+				}
+
+				firstWriteAllowed.countDown();
+			}
+		}).start();
+
+		storage.shutdown();
+
+		assertEquals( Arrays.asList( "blocker", "queued1", "queued2", "queued3" ), written );
+
+		try {
+			storage.saveRecordLater( TABLE, new TestRecord( "late" ), null );
+			fail( "records can't be queued after shutdown" );
+		}
+		catch ( IllegalStateException e ) {
+		}
+	}
+
+	/**
+	 * Records whose search key starts with "fail" throw. The first write
+	 * waits until firstWriteAllowed is counted down.
+	 */
+	private IStorage makeStorage() {
+		return (IStorage) Proxy.newProxyInstance( IStorage.class.getClassLoader(), new Class<?>[] { IStorage.class }, new InvocationHandler() {
+			@Override
+			public Object invoke( Object proxy, Method method, Object[] args ) throws Throwable {
+				if ( !method.getName().equals( "saveRecord" ) ) {
+					return null;
+				}
+
+				String searchKey = ( (IStorable) args[ 1 ] ).getSearchKey();
+
+				if ( firstWriteStarted.getCount() > 0 ) {
+					firstWriteStarted.countDown();
+					firstWriteAllowed.await();
+				}
+
+				if ( searchKey.startsWith( "fail" ) ) {
+					throw new Exception( searchKey );
+				}
+
+				written.add( searchKey );
+
+				return null;
+			}
+		});
+	}
+
+	private IStorageWriteListener makeListener( final List<String> heard, final String name ) {
+		return new IStorageWriteListener() {
+			@Override
+			public void recordWritten( IStorageTable table, IStorable record, Exception error ) {
+				heard.add( name );
+			}
+		};
+	}
+
+	private static class TestRecord implements IStorable {
+		private long id;
+		private String searchKey;
+
+		TestRecord( String searchKey ) {
+			this.id = 0;
+			this.searchKey = searchKey;
+		}
+
+		@Override
+		public long getID() {
+			return id;
+		}
+
+		@Override
+		public void setID( long id ) {
+			this.id = id;
+		}
+
+		@Override
+		public Instant getCreateTime() {
+			return null;
+		}
+
+		@Override
+		public Instant getModifyTime() {
+			return null;
+		}
+
+		@Override
+		public String getSearchKey() {
+			return searchKey;
+		}
+	}
+}
@@ -119,4 +119,122 @@ public class TweetCollectionTest extends TestCase {
 			}
 		}
 	}
+
+	/**
+	 */
+	public void testTweetLookupByID() throws Exception {
+		ITweetCollection tweetCollection = tweetFactory.makeTweetCollection();
+
+		for ( int i = 1; i <= 1000; i++ ) {
+			tweetCollection.addTweet( tweetFactory.makeTweet( i * 7919L, new HashMap<String,String>(), new StringList( "" ),
+																new StringList( "" ), tweetFactory.makeTweetUser( "user" + i ) ) );
+		}
+
+		assertEquals( 1, tweetCollection.getTweetOrderByID( 7919L ) );
+		assertEquals( 500, tweetCollection.getTweetOrderByID( 500 * 7919L ) );
+		assertEquals( 0, tweetCollection.getTweetOrderByID( 12345L ) );
+		assertNull( tweetCollection.getTweetByID( 12345L ) );
+		assertEquals( 1000 * 7919L, tweetCollection.getTweetByID( 1000 * 7919L ).getID() );
+
+			//	the first of two tweets with the same ID is found
+		tweetCollection.addTweet( tweetFactory.makeTweet( 7919L, new HashMap<String,String>(), new StringList( "" ),
+															new StringList( "" ), tweetFactory.makeTweetUser( "duplicate" ) ) );
+		assertEquals( 1, tweetCollection.getTweetOrderByID( 7919L ) );
+
+		tweetCollection.removeTweetByID( 7919L );
+		assertEquals( 999, tweetCollection.getTweets().size() );
+		assertEquals( 0, tweetCollection.getTweetOrderByID( 7919L ) );
+		assertEquals( 1, tweetCollection.getTweetOrderByID( 2 * 7919L ) );
+
+			//	changed directly rather than through the collection
+		tweetCollection.getTweets().remove( 0 );
+		assertEquals( 1, tweetCollection.getTweetOrderByID( 3 * 7919L ) );
+
+			//	replaced directly, without changing the size
+		ITweet replaced = tweetCollection.getTweets().set( 0, tweetFactory.makeTweet( 99L, new HashMap<String,String>(), new StringList( "" ),
+																						new StringList( "" ), tweetFactory.makeTweetUser( "replacement" ) ) );
+		assertEquals( 1, tweetCollection.getTweetOrderByID( 99L ) );
+		assertNull( tweetCollection.getTweetByID( replaced.getID() ) );
+		tweetCollection.getTweets().set( 0, replaced );
+
+		String json = Utils.getDefaultObjectMapper().writeValueAsString( tweetCollection );
+		tweetCollection = (ITweetCollection) Utils.getDefaultObjectMapper().readValue( json, Object.class );
+		assertEquals( 998, tweetCollection.getTweetOrderByID( 1000 * 7919L ) );
+
+		tweetCollection.setTweets( new ArrayList<ITweet>( tweetCollection.getTweets().subList( 0, 10 ) ) );
+		assertEquals( 0, tweetCollection.getTweetOrderByID( 1000 * 7919L ) );
+		assertEquals( 10, tweetCollection.getTweetOrderByID( 12 * 7919L ) );
+	}
+
+	/**
+	 */
+	public void testTweetLookupMissDoesNotScan() throws Exception {
+		ReadCountingList tweets = new ReadCountingList();
+		ITweetCollection tweetCollection = tweetFactory.makeTweetCollection( tweets, Instant.now(), new HashMap<String,String>() );
+
+			//	the index is built once, from the empty list
+		assertNull( tweetCollection.getTweetByID( 1 ) );
+		assertEquals( 1, tweets.reads );
+		tweets.reads = 0;
+
+			//	the same pattern as loading a page: look each new tweet up,
+			//	then add it
+		for ( int i = 1; i <= 5000; i++ ) {
+			assertNull( tweetCollection.getTweetByID( i ) );
+			tweetCollection.addTweet( tweetFactory.makeTweet( i, new HashMap<String,String>(), new StringList( "" ),
+																new StringList( "" ), tweetFactory.makeTweetUser( "user" + i ) ) );
+		}
+
+		assertEquals( 0, tweets.reads );
+		assertEquals( 5000, tweets.size() );
+
+			//	a hit only reads the tweet it finds, to check it and return it
+		assertEquals( 2500, tweetCollection.getTweetByID( 2500 ).getID() );
+		assertEquals( 2, tweets.reads );
+
+			//	changes made through getTweets() are seen without a scan on a miss
+		tweetCollection.getTweets().set( 0, tweetFactory.makeTweet( 9999, new HashMap<String,String>(), new StringList( "" ),
+																	new StringList( "" ), tweetFactory.makeTweetUser( "replacement" ) ) );
+		assertNull( tweetCollection.getTweetByID( 1 ) );
+		assertEquals( 1, tweetCollection.getTweetOrderByID( 9999 ) );
+
+		tweets.reads = 0;
+		for ( int i = 10001; i <= 15000; i++ ) {
+			assertNull( tweetCollection.getTweetByID( i ) );
+		}
+		assertEquals( 0, tweets.reads );
+	}
+
+	/**
+	 * Counts the ways the list can be read.
+	 */
+	private static class ReadCountingList extends ArrayList<ITweet> {
+		private static final long serialVersionUID = 1L;
+
+		int reads;
+
+		@Override
+		public ITweet get( int index ) {
+			reads++;
+			return super.get( index );
+		}
+
+		@Override
+		public Iterator<ITweet> iterator() {
+			reads++;
+			return super.iterator();
+		}
+
+		@Override
+		public ListIterator<ITweet> listIterator( int index ) {
+			reads++;
+			return super.listIterator( index );
+		}
+
+		@Override
+		public Object[] toArray() {
+			reads++;
+			return super.toArray();
+		}
+	}
 }
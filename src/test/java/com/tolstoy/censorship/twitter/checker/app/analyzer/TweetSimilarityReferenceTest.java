@@ -0,0 +1,135 @@
+/*
+ * Copyright 2018 Chris Kelly
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.tolstoy.censorship.twitter.checker.app.analyzer;
+
+import java.util.*;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.text.similarity.CosineDistance;
+import org.apache.commons.text.similarity.JaccardSimilarity;
+import org.apache.commons.text.similarity.LevenshteinDistance;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+public class TweetSimilarityReferenceTest extends TestCase {
+	private static final String[][] WORDS = {
+		{ "censorship", "twitter", "reply", "hidden" },
+		{ "reply", "reply", "reply", "hidden" },
+		{ "the", "quick", "brown", "fox", "jumps", "over", "the", "lazy", "dog" },
+		{ "don't", "@someone", "#hashtag", "https://t.co/abc", "ok!" },
+		{ "café", "naïve", "日本語", "emoji", "😀" },
+		{ "a" },
+		{ "...", "!!!" }
+	};
+
+	private static final CosineDistance cosineDistance = new CosineDistance();
+	private static final JaccardSimilarity jaccardSimilarity = new JaccardSimilarity();
+
+	public TweetSimilarityReferenceTest( String testName ) {
+		super( testName );
+	}
+
+	public static Test suite() {
+		return new TestSuite( TweetSimilarityReferenceTest.class );
+	}
+
+	/**
+	 */
+	public void testCosineDistanceMatchesCommonsText() throws Exception {
+		for ( String[] referenceWords : WORDS ) {
+			TweetSimilarityReference reference = new TweetSimilarityReference( Arrays.asList( referenceWords ) );
+
+			for ( String[] otherWords : WORDS ) {
+				String otherText = TweetSimilarityReference.makeText( Arrays.asList( otherWords ) );
+
+				assertEquals( reference.getText() + " / " + otherText,
+								cosineDistance.apply( reference.getText(), otherText ).doubleValue(),
+								reference.cosineDistance( otherText ),
+								1e-12 );
+			}
+		}
+	}
+
+	/**
+	 */
+	public void testCosineDistanceBlankText() throws Exception {
+		TweetSimilarityReference reference = new TweetSimilarityReference( Arrays.asList( "reply", "hidden" ) );
+		TweetSimilarityReference blankReference = new TweetSimilarityReference( new ArrayList<String>() );
+
+		for ( String blank : new String[] { "", " ", "  " } ) {
+			try {
+				cosineDistance.apply( reference.getText(), blank );
+				fail( "commons-text should reject a blank text" );
+			}
+			catch ( IllegalArgumentException e ) {
+			}
+
+			try {
+				reference.cosineDistance( blank );
+				fail( "a blank text should be rejected" );
+			}
+			catch ( IllegalArgumentException e ) {
+			}
+		}
+
+		try {
+			blankReference.cosineDistance( reference.getText() );
+			fail( "a blank reference should be rejected" );
+		}
+		catch ( IllegalArgumentException e ) {
+		}
+	}
+
+	/**
+	 */
+	public void testJaccardSimilarityMatchesCommonsText() throws Exception {
+		List<List<String>> wordLists = new ArrayList<List<String>>();
+		for ( String[] words : WORDS ) {
+			wordLists.add( Arrays.asList( words ) );
+		}
+		wordLists.add( new ArrayList<String>() );
+
+		for ( List<String> referenceWords : wordLists ) {
+			TweetSimilarityReference reference = new TweetSimilarityReference( referenceWords );
+
+			for ( List<String> otherWords : wordLists ) {
+				String otherText = TweetSimilarityReference.makeText( otherWords );
+
+				assertEquals( reference.getText() + " / " + otherText,
+								jaccardSimilarity.apply( reference.getText(), otherText ).doubleValue(),
+								reference.jaccardSimilarity( otherText ) );
+			}
+		}
+	}
+
+	/**
+	 */
+	public void testLevenshteinDistanceIsCapped() throws Exception {
+		LevenshteinDistance unbounded = new LevenshteinDistance();
+
+		TweetSimilarityReference reference = new TweetSimilarityReference( Arrays.asList( "reply", "hidden" ) );
+		assertEquals( unbounded.apply( reference.getText(), "hidden replies" ).intValue(), reference.levenshteinDistance( "hidden replies" ) );
+
+		int threshold = TweetSimilarityReference.LEVENSHTEIN_THRESHOLD;
+		assertEquals( 65, threshold + 1 );
+
+		TweetSimilarityReference longReference = new TweetSimilarityReference( Arrays.asList( StringUtils.repeat( 'a', 200 ) ) );
+
+		assertEquals( threshold, longReference.levenshteinDistance( StringUtils.repeat( 'a', 200 - threshold ) ) );
+		assertEquals( threshold + 1, longReference.levenshteinDistance( StringUtils.repeat( 'a', 200 - threshold - 1 ) ) );
+		assertEquals( threshold + 1, longReference.levenshteinDistance( StringUtils.repeat( 'b', 200 ) ) );
+		assertEquals( threshold + 1, longReference.levenshteinDistance( "" ) );
+	}
+}
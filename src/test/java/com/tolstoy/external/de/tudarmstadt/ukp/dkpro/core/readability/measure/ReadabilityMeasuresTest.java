@@ -0,0 +1,106 @@
+/*
+ * Copyright 2018 Chris Kelly
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.tolstoy.external.de.tudarmstadt.ukp.dkpro.core.readability.measure;
+
+import java.util.*;
+import com.tolstoy.external.de.tudarmstadt.ukp.dkpro.core.readability.measure.ReadabilityMeasures.Measures;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+/**
+ * Pins the syllable counts and scores, which were checked against the
+ * implementation in use before the counts were computed in one pass.
+ */
+public class ReadabilityMeasuresTest extends TestCase {
+	private static final double DELTA = 1e-9;
+
+	private static final List<String> SHORT_EN = Arrays.asList( "the", "cat", "sat", "on", "the", "mat" );
+
+	private static final List<String> LONG_EN = Arrays.asList( "Readability", "measures", "estimate", "how", "difficult",
+																"a", "passage", "is", "to", "understand" );
+
+	private static final List<String> DE = Arrays.asList( "Die", "Lesbarkeit", "eines", "Textes", "hängt", "von", "der",
+															"Satzlänge", "und", "Wortlänge", "ab" );
+
+	public ReadabilityMeasuresTest( String testName ) {
+		super( testName );
+	}
+
+	public static Test suite() {
+		return new TestSuite( ReadabilityMeasuresTest.class );
+	}
+
+	/**
+	 */
+	public void testSyllables() throws Exception {
+		WordSyllableCounter en = new WordSyllableCounter( "en" );
+
+		assertEquals( 1, en.countSyllables( "cat" ) );
+		assertEquals( 2, en.countSyllables( "passage" ) );
+		assertEquals( 3, en.countSyllables( "understand" ) );
+		assertEquals( 4, en.countSyllables( "Readability" ) );
+		assertEquals( 22, en.countSyllables( LONG_EN ) );
+
+		WordSyllableCounter de = new WordSyllableCounter( "de" );
+
+		assertEquals( 1, de.countSyllables( "hängt" ) );
+		assertEquals( 2, de.countSyllables( "eines" ) );
+		assertEquals( 3, de.countSyllables( "Lesbarkeit" ) );
+		assertEquals( 3, de.countSyllables( "Satzlänge" ) );
+		assertEquals( 19, de.countSyllables( DE ) );
+	}
+
+	/**
+	 */
+	public void testShortEnglishSentence() throws Exception {
+		assertScores( new ReadabilityMeasures( "en" ), SHORT_EN, 1,
+						-5.085000000000001, 0.887833333333333, 116.14500000000001, 2.4000000000000004,
+						-1.4499999999999993, 0.0, 3.0 );
+	}
+
+	/**
+	 */
+	public void testLongEnglishSentence() throws Exception {
+		assertScores( new ReadabilityMeasures( "en" ), LONG_EN, 1,
+						12.300999999999995, 20.12869999999999, 10.565000000000005, 24.0,
+						14.270000000000007, 99.0, 15.24744871391589 );
+	}
+
+	/**
+	 */
+	public void testGermanSentences() throws Exception {
+		assertScores( new ReadabilityMeasures( "de" ), DE, 2,
+						6.1545454545454525, 15.255818181818178, 55.12522727272729, 13.10909090909091,
+						6.936818181818182, 0.0, 9.70820393249937 );
+	}
+
+	/**
+	 * The scores are in the order ari, coleman_liau, flesch, fog, kincaid,
+	 * lix, smog. Each is checked through the list method and through the
+	 * counts, which have to agree.
+	 */
+	private void assertScores( ReadabilityMeasures measures, List<String> words, int nrofSentences, double... expected ) {
+		Measures[] order = { Measures.ari, Measures.coleman_liau, Measures.flesch, Measures.fog,
+								Measures.kincaid, Measures.lix, Measures.smog };
+
+		ReadabilityMeasures.Counts counts = measures.count( words, nrofSentences );
+
+		for ( int i = 0; i < order.length; i++ ) {
+			assertEquals( order[ i ].name(), expected[ i ], measures.getReadabilityScore( order[ i ], words, nrofSentences ), DELTA );
+			assertEquals( order[ i ].name(), expected[ i ], measures.getReadabilityScore( order[ i ], counts ), DELTA );
+		}
+	}
+}